@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# 기동 시간 / RSS 비교 스크립트
+#   1) 기존 방식: java -jar (AOT, CDS, 지연 초기화 미사용)
+#   2) 최적화 방식: exploded jar + Spring AOT + AppCDS(app.jsa)
+#
+# 사용법: ./gradlew bootJar cdsArchive && ./scripts/startup-benchmark.sh [반복횟수]
+# Kafka/Schema Registry 없이도 기동 완료 로그("Started InsuranceProjectApplication")까지는 측정할 수 있습니다.
+# 결과는 build/startup-benchmark.md 에 표(평균 기동 시간 ms, 평균 RSS MB, JVM 버전)로 남습니다.
+set -euo pipefail
+
+RUNS="${1:-5}"
+ROOT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$(ls "$ROOT_DIR"/build/libs/insurance-project-*-SNAPSHOT.jar | grep -v plain | head -n 1)"
+EXPLODED="$ROOT_DIR/build/exploded"
+PORT=18080
+REPORT="$ROOT_DIR/build/startup-benchmark.md"
+
+measure() {
+    local label="$1"; shift
+    local workdir="$1"; shift
+    local total_ms=0 total_rss=0
+
+    for i in $(seq 1 "$RUNS"); do
+        local log_file
+        log_file="$(mktemp)"
+        local start_ns
+        start_ns="$(date +%s%N)"
+        (cd "$workdir" && exec java "$@" --server.port="$PORT" --spring.profiles.active=dev >"$log_file" 2>&1) &
+        local pid=$!
+
+        until grep -q "Started InsuranceProjectApplication" "$log_file"; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "[$label] 기동 실패, 로그: $log_file" >&2
+                exit 1
+            fi
+            sleep 0.05
+        done
+        local elapsed_ms=$(( ($(date +%s%N) - start_ns) / 1000000 ))
+        local rss_kb
+        rss_kb="$(awk '/VmRSS/ {print $2}' /proc/"$pid"/status)"
+
+        kill "$pid" && wait "$pid" 2>/dev/null || true
+        rm -f "$log_file"
+
+        echo "[$label] run $i: ${elapsed_ms} ms, RSS $(( rss_kb / 1024 )) MB"
+        total_ms=$(( total_ms + elapsed_ms ))
+        total_rss=$(( total_rss + rss_kb ))
+    done
+
+    echo "[$label] 평균: $(( total_ms / RUNS )) ms, RSS $(( total_rss / RUNS / 1024 )) MB"
+    echo "| $label | $(( total_ms / RUNS )) | $(( total_rss / RUNS / 1024 )) |" >>"$REPORT"
+}
+
+{
+    echo "# Startup benchmark ($(date -u +%Y-%m-%dT%H:%MZ), ${RUNS} runs, $(java -version 2>&1 | head -n 1))"
+    echo
+    echo "| mode | avg startup (ms) | avg RSS (MB) |"
+    echo "|---|---|---|"
+} >"$REPORT"
+
+measure "baseline (java -jar, eager)" "$ROOT_DIR" -jar "$JAR" --spring.main.lazy-initialization=false
+measure "AOT + AppCDS" "$EXPLODED" -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true @app.args
+
+echo "결과: $REPORT"
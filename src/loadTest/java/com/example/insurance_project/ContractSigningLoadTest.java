@@ -0,0 +1,414 @@
+package com.example.insurance_project;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 계약 체결 API 부하 테스트입니다. (./gradlew loadTest)
+ * 내장 Kafka 브로커, mock:// 스키마 레지스트리, H2 저장소로 애플리케이션 전체를 띄운 뒤
+ * /api/contracts/sign, /api/contracts/batch-sign 을 동시에 호출하여 아래 항목을 측정합니다.
+ * <ul>
+ *     <li>HTTP 응답 p99 / 처리량 (이벤트/초)</li>
+ *     <li>contract-events 토픽 적재 속도 (produce rate)</li>
+ *     <li>notification-group-avro, insurance-group-dlq-test 컨슈머 그룹의 최대 lag 및 소진 시간</li>
+ *     <li>policy-summary-events 까지의 Kafka Streams 출력 지연 p99</li>
+ * </ul>
+ * 내장 브로커의 절대 수치는 실행 머신마다 크게 달라지므로 고정 기준값 대신 기록된 기준선(baseline)과 비교합니다.
+ * <ul>
+ *     <li>기준선 파일(-PloadTest.baselineFile, 기본 src/loadTest/load-test-baseline.properties)에 시나리오 값이 없으면 이번 측정값을 기록만 합니다.</li>
+ *     <li>값이 있으면 p99는 기준선 x (1 + tolerance) 이하, 처리량은 기준선 x (1 - tolerance) 이상이어야 합니다. (-PloadTest.tolerance, 기본 0.25)</li>
+ *     <li>-PloadTest.updateBaseline=true 로 실행하면 비교 없이 기준선을 이번 측정값으로 갱신합니다. (같은 종류의 CI 머신에서 main 기준으로 갱신)</li>
+ * </ul>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.properties.schema.registry.url=mock://insurance-load-test",
+        "spring.kafka.streams.state-dir=build/load-test/kafka-streams",
+        // 외부 Faker API 호출이 측정에 섞이지 않도록 연결할 수 없는 주소로 돌립니다.
+        "faker.api.url=http://localhost:1/disabled",
+        // 애플리케이션 자체의 처리 한계를 측정하기 위해 유입 제한(RateLimitFilter)은 끕니다.
+        "insurance.ratelimit.enabled=false",
+        // 측정 도중 ListenerConcurrencyController가 컨테이너를 재시작하면 lag/지연 수치가 흔들리므로 끕니다.
+        "insurance.kafka.autoscaling.enabled=false"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 3, topics = {"contract-events", "contract-events-dlt", "policy-summary-events", "policy-state"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ContractSigningLoadTest {
+
+    private static final String TOPIC_CONTRACT_EVENTS = "contract-events";
+    private static final String TOPIC_POLICY_SUMMARY = "policy-summary-events";
+    private static final List<String> CONSUMER_GROUPS = List.of("notification-group-avro", "insurance-group-dlq-test");
+
+    // 부하 설정
+    private static final int CONCURRENCY = Integer.getInteger("loadTest.concurrency", 16);
+    private static final int REQUESTS = Integer.getInteger("loadTest.requests", 2000);
+    private static final int BATCH_SIZE = Integer.getInteger("loadTest.batchSize", 10);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("loadTest.warmupRequests", 200);
+
+    // 기준선 비교
+    private static final Path BASELINE_FILE = Path.of(System.getProperty("loadTest.baselineFile", "src/loadTest/load-test-baseline.properties"));
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("loadTest.tolerance", "0.25"));
+    private static final boolean UPDATE_BASELINE = Boolean.parseBoolean(System.getProperty("loadTest.updateBaseline", "false"));
+    private static final long DRAIN_TIMEOUT_MS = Long.getLong("loadTest.drainTimeoutMs", 60000L);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private AdminClient adminClient;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        adminClient = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString()));
+        awaitCondition(() -> {
+            KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+            return kafkaStreams != null && kafkaStreams.state() == KafkaStreams.State.RUNNING;
+        }, "kafka streams RUNNING");
+        // JIT 워밍업 (측정에서 제외)
+        runRequests("/api/contracts/sign", WARMUP_REQUESTS, i -> signBody("WARMUP-" + i));
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+
+    @Test
+    void signMeetsThroughputAndLatencySlo() throws Exception {
+        String prefix = "LOAD-SIGN-" + UUID.randomUUID() + "-";
+        runScenario("sign", "/api/contracts/sign", REQUESTS, 1, i -> signBody(prefix + i), prefix);
+    }
+
+    @Test
+    void batchSignMeetsThroughputAndLatencySlo() throws Exception {
+        String prefix = "LOAD-BATCH-" + UUID.randomUUID() + "-";
+        int requestCount = Math.max(1, REQUESTS / BATCH_SIZE);
+        runScenario("batch-sign", "/api/contracts/batch-sign", requestCount, BATCH_SIZE, i -> batchBody(prefix + i + "-"), prefix);
+    }
+
+    private void runScenario(String name, String path, int requestCount, int eventsPerRequest,
+                             IntFunction<String> bodyFactory, String policyPrefix) throws Exception {
+        int expectedEvents = requestCount * eventsPerRequest;
+        long baseEndOffset = totalEndOffset();
+
+        try (StreamsLatencyProbe probe = new StreamsLatencyProbe(policyPrefix, expectedEvents)) {
+            // 1. HTTP 부하
+            long start = System.nanoTime();
+            long[] httpLatencies = runRequests(path, requestCount, bodyFactory);
+            long httpElapsedNanos = System.nanoTime() - start;
+
+            // 2. contract-events 적재 완료까지 대기
+            awaitCondition(() -> totalEndOffset() - baseEndOffset >= expectedEvents, "contract-events produce");
+            long produceElapsedNanos = System.nanoTime() - start;
+
+            // 3. 컨슈머 그룹 lag 소진 대기
+            Map<String, Long> maxLag = new HashMap<>();
+            awaitCondition(() -> {
+                long total = 0;
+                for (String group : CONSUMER_GROUPS) {
+                    long lag = consumerLag(group);
+                    maxLag.merge(group, lag, Math::max);
+                    total += lag;
+                }
+                return total == 0;
+            }, "consumer lag drain");
+            long drainElapsedNanos = System.nanoTime() - start;
+
+            // 4. Streams 출력 대기
+            assertThat(probe.await(DRAIN_TIMEOUT_MS))
+                    .as("policy-summary-events should receive %d records", expectedEvents)
+                    .isTrue();
+
+            long httpP99Ms = percentileMillis(httpLatencies, 99);
+            long streamsP99Ms = probe.percentileMillis(99);
+            double throughput = expectedEvents / (httpElapsedNanos / 1_000_000_000.0);
+            double produceRate = expectedEvents / (produceElapsedNanos / 1_000_000_000.0);
+
+            System.out.printf("%n=== Load test [%s] ===%n", name);
+            System.out.printf("requests=%d, events=%d, concurrency=%d%n", requestCount, expectedEvents, CONCURRENCY);
+            System.out.printf("http p50=%dms p99=%dms max=%dms, throughput=%.1f events/s%n",
+                    percentileMillis(httpLatencies, 50), httpP99Ms, percentileMillis(httpLatencies, 100), throughput);
+            System.out.printf("produce rate=%.1f events/s%n", produceRate);
+            System.out.printf("consumer max lag=%s, drained in %dms%n", maxLag, TimeUnit.NANOSECONDS.toMillis(drainElapsedNanos));
+            System.out.printf("streams output p50=%dms p99=%dms%n", probe.percentileMillis(50), streamsP99Ms);
+
+            compareWithBaseline(name, httpP99Ms, throughput, streamsP99Ms);
+        }
+    }
+
+    /**
+     * 측정값을 기준선과 비교합니다. 기준선이 없거나 갱신 모드이면 측정값을 기준선으로 기록합니다.
+     * 두 시나리오가 같은 파일을 쓰므로 읽기-수정-쓰기를 직렬화합니다.
+     */
+    private static synchronized void compareWithBaseline(String name, long httpP99Ms, double throughput, long streamsP99Ms)
+            throws IOException {
+        Properties baseline = new Properties();
+        if (Files.exists(BASELINE_FILE)) {
+            try (Reader reader = Files.newBufferedReader(BASELINE_FILE)) {
+                baseline.load(reader);
+            }
+        }
+        String httpKey = name + ".http-p99-ms";
+        String throughputKey = name + ".throughput";
+        String streamsKey = name + ".streams-p99-ms";
+
+        if (UPDATE_BASELINE || !baseline.containsKey(httpKey)) {
+            baseline.setProperty(httpKey, Long.toString(httpP99Ms));
+            baseline.setProperty(throughputKey, String.format(Locale.ROOT, "%.1f", throughput));
+            baseline.setProperty(streamsKey, Long.toString(streamsP99Ms));
+            Files.createDirectories(BASELINE_FILE.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(BASELINE_FILE)) {
+                baseline.store(writer, "Load test baseline (./gradlew loadTest -PloadTest.updateBaseline=true)");
+            }
+            System.out.printf("[%s] baseline recorded to %s%n", name, BASELINE_FILE.toAbsolutePath());
+            return;
+        }
+
+        long baselineHttpP99Ms = Long.parseLong(baseline.getProperty(httpKey));
+        double baselineThroughput = Double.parseDouble(baseline.getProperty(throughputKey));
+        long baselineStreamsP99Ms = Long.parseLong(baseline.getProperty(streamsKey));
+        System.out.printf("[%s] baseline http p99=%dms throughput=%.1f events/s streams p99=%dms (tolerance %.0f%%)%n",
+                name, baselineHttpP99Ms, baselineThroughput, baselineStreamsP99Ms, TOLERANCE * 100);
+
+        assertThat(httpP99Ms).as("[%s] HTTP p99 (ms) vs baseline %d", name, baselineHttpP99Ms)
+                .isLessThanOrEqualTo((long) Math.ceil(baselineHttpP99Ms * (1 + TOLERANCE)));
+        assertThat(throughput).as("[%s] throughput (events/s) vs baseline %.1f", name, baselineThroughput)
+                .isGreaterThanOrEqualTo(baselineThroughput * (1 - TOLERANCE));
+        assertThat(streamsP99Ms).as("[%s] streams output p99 (ms) vs baseline %d", name, baselineStreamsP99Ms)
+                .isLessThanOrEqualTo((long) Math.ceil(baselineStreamsP99Ms * (1 + TOLERANCE)));
+    }
+
+    /**
+     * CONCURRENCY 개의 워커로 요청을 보내고 요청별 지연(나노초)을 반환합니다.
+     */
+    private long[] runRequests(String path, int requestCount, IntFunction<String> bodyFactory) throws InterruptedException {
+        URI uri = URI.create("http://localhost:" + port + path);
+        long[] latencies = new long[requestCount];
+        AtomicInteger next = new AtomicInteger();
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            for (int worker = 0; worker < CONCURRENCY; worker++) {
+                executor.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requestCount) {
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(bodyFactory.apply(i)))
+                                .build();
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.add(i + ": HTTP " + response.statusCode());
+                            }
+                        } catch (Exception e) {
+                            failures.add(i + ": " + e);
+                        }
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(failures).as("failed requests on %s", path).isEmpty();
+        return latencies;
+    }
+
+    private long totalEndOffset() throws Exception {
+        return endOffsets().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private Map<TopicPartition, Long> endOffsets() throws Exception {
+        return offsets(OffsetSpec.latest());
+    }
+
+    private Map<TopicPartition, Long> offsets(OffsetSpec spec) throws Exception {
+        Map<TopicPartition, OffsetSpec> request = IntStream.range(0, embeddedKafka.getPartitionsPerTopic())
+                .boxed()
+                .collect(Collectors.toMap(p -> new TopicPartition(TOPIC_CONTRACT_EVENTS, p), p -> spec));
+        return adminClient.listOffsets(request).all().get().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().offset()));
+    }
+
+    private long consumerLag(String groupId) throws Exception {
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get();
+        // 커밋이 없는 파티션은 auto-offset-reset=earliest 에 따라 시작 오프셋부터 읽으므로 0이 아닌 시작 오프셋을 기준으로 합니다.
+        Map<TopicPartition, Long> beginningOffsets = offsets(OffsetSpec.earliest());
+        long lag = 0;
+        for (Map.Entry<TopicPartition, Long> end : endOffsets().entrySet()) {
+            OffsetAndMetadata offset = committed.get(end.getKey());
+            long position = offset == null ? beginningOffsets.get(end.getKey()) : offset.offset();
+            lag += Math.max(0, end.getValue() - position);
+        }
+        return lag;
+    }
+
+    private void awaitCondition(CheckedCondition condition, String description) throws Exception {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        while (!condition.check()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Timed out after " + DRAIN_TIMEOUT_MS + "ms waiting for " + description);
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static long percentileMillis(long[] latencyNanos, int percentile) {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+    }
+
+    private static String signBody(String policyNumber) {
+        return "{\"customerId\":\"CUSTOMER-LOAD\",\"productId\":\"PRODUCT-LOAD\",\"policyNumber\":\"" + policyNumber + "\"}";
+    }
+
+    private static String batchBody(String policyPrefix) {
+        String contracts = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(j -> signBody(policyPrefix + j))
+                .collect(Collectors.joining(","));
+        return "{\"contracts\":[" + contracts + "]}";
+    }
+
+    @FunctionalInterface
+    private interface CheckedCondition {
+        boolean check() throws Exception;
+    }
+
+    /**
+     * policy-summary-events 토픽을 끝에서부터 읽으며, policyPrefix로 시작하는 키의 출력 지연을 기록합니다.
+     * 지연 = 수신 시각 - 레코드 타임스탬프(원본 이벤트를 발행한 시각)
+     */
+    private class StreamsLatencyProbe implements AutoCloseable {
+
+        private final String policyPrefix;
+        private final CountDownLatch remaining;
+        private final List<Long> latenciesMs = new ArrayList<>();
+        private final KafkaConsumer<String, String> consumer;
+        private final Thread pollThread;
+        private volatile boolean running = true;
+
+        StreamsLatencyProbe(String policyPrefix, int expected) {
+            this.policyPrefix = policyPrefix;
+            this.remaining = new CountDownLatch(expected);
+
+            Map<String, Object> props = new HashMap<>();
+            props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString());
+            props.put(ConsumerConfig.GROUP_ID_CONFIG, "load-test-probe-" + UUID.randomUUID());
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+            props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+            this.consumer = new KafkaConsumer<>(props);
+
+            List<TopicPartition> partitions = IntStream.range(0, embeddedKafka.getPartitionsPerTopic())
+                    .mapToObj(p -> new TopicPartition(TOPIC_POLICY_SUMMARY, p))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToEnd(partitions);
+            // seekToEnd는 지연 평가되므로 부하 시작 전에 위치를 확정합니다.
+            partitions.forEach(consumer::position);
+
+            this.pollThread = new Thread(this::pollLoop, "load-test-streams-probe");
+            this.pollThread.start();
+        }
+
+        private void pollLoop() {
+            while (running && remaining.getCount() > 0) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(100))) {
+                    if (record.key() != null && record.key().startsWith(policyPrefix)) {
+                        synchronized (latenciesMs) {
+                            latenciesMs.add(System.currentTimeMillis() - record.timestamp());
+                        }
+                        remaining.countDown();
+                    }
+                }
+            }
+        }
+
+        boolean await(long timeoutMs) throws InterruptedException {
+            return remaining.await(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        long percentileMillis(int percentile) {
+            synchronized (latenciesMs) {
+                long[] nanos = latenciesMs.stream().mapToLong(TimeUnit.MILLISECONDS::toNanos).toArray();
+                return nanos.length == 0 ? 0 : ContractSigningLoadTest.percentileMillis(nanos, percentile);
+            }
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            running = false;
+            pollThread.join(TimeUnit.SECONDS.toMillis(5));
+            consumer.close();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.insurance_project.archive;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * 아카이브 내보내기의 진행 위치를 저장하는 파일 기반 체크포인트입니다.
+ * <ul>
+ *     <li>contracts.watermark : 마지막으로 내보낸 Contract.createdAt</li>
+ *     <li>contracts.exported : 워터마크 - overlap 이후에 이미 내보낸 계약 키(id@createdAt) 목록 (겹치는 구간 재조회 시 중복 제거용)</li>
+ *     <li>insurance-events.{partition} : 파티션별로 다음에 읽을 contract-events 오프셋</li>
+ * </ul>
+ * 임시 파일에 쓴 뒤 원자적으로 교체하므로, 내보내기 도중 중단되어도 이전 체크포인트가 그대로 남습니다.
+ */
+class ArchiveCheckpoint {
+
+    private static final String CONTRACTS_WATERMARK = "contracts.watermark";
+    private static final String CONTRACTS_EXPORTED = "contracts.exported";
+    private static final String EVENTS_OFFSET_PREFIX = "insurance-events.";
+
+    private final Path file;
+    private final Properties values = new Properties();
+
+    private ArchiveCheckpoint(Path file) {
+        this.file = file;
+    }
+
+    static ArchiveCheckpoint load(Path file) throws IOException {
+        ArchiveCheckpoint checkpoint = new ArchiveCheckpoint(file);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                checkpoint.values.load(reader);
+            }
+        }
+        return checkpoint;
+    }
+
+    LocalDateTime contractsWatermark() {
+        String watermark = values.getProperty(CONTRACTS_WATERMARK);
+        return watermark == null ? null : LocalDateTime.parse(watermark);
+    }
+
+    void contractsWatermark(LocalDateTime watermark) {
+        values.setProperty(CONTRACTS_WATERMARK, watermark.toString());
+    }
+
+    Set<String> contractsExported() {
+        String exported = values.getProperty(CONTRACTS_EXPORTED, "");
+        return exported.isEmpty() ? new HashSet<>() : new HashSet<>(Arrays.asList(exported.split(",")));
+    }
+
+    void contractsExported(Collection<String> keys) {
+        values.setProperty(CONTRACTS_EXPORTED, String.join(",", keys));
+    }
+
+    long eventsOffset(int partition) {
+        return Long.parseLong(values.getProperty(EVENTS_OFFSET_PREFIX + partition, "0"));
+    }
+
+    void eventsOffset(int partition, long offset) {
+        values.setProperty(EVENTS_OFFSET_PREFIX + partition, Long.toString(offset));
+    }
+
+    void save() throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            values.store(writer, "insurance archive checkpoint");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
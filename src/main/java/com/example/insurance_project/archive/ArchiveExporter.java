@@ -0,0 +1,260 @@
+package com.example.insurance_project.archive;
+
+import com.example.insurance_project.archive.avro.ContractRecord;
+import com.example.insurance_project.domain.Contract;
+import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import com.example.insurance_project.repository.ContractRepository;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroDeserializerConfig;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Contract 테이블과 contract-events 토픽을 분석용 Avro 컨테이너 파일로 증분 내보내기합니다.
+ * <pre>
+ * {base-dir}/contracts/dt=yyyy-MM-dd/part-{재조회 시작 시각}-{중복 제거 키 수}.avro
+ * {base-dir}/insurance-events/dt=yyyy-MM-dd/part-{파티션별 시작 오프셋}.avro
+ * {base-dir}/_checkpoint.properties
+ * </pre>
+ * 매 실행은 체크포인트 이후 데이터만 읽고, 파일을 모두 닫은 뒤에 체크포인트를 갱신합니다.
+ * 계약 체결 경로와 자원을 다투지 않도록 다음을 지킵니다.
+ * <ul>
+ *     <li>전용 단일 스레드에서 실행하며, 이전 실행이 끝나지 않았으면 건너뜁니다.</li>
+ *     <li>DB는 (createdAt, id) 키셋 페이지 조회(page-size)만 사용하고, 페이지 사이에 throttle-ms 만큼 쉽니다.</li>
+ *     <li>Kafka는 컨슈머 그룹에 참여하지 않는(assign) 별도 client.id 로 읽으므로 리밸런스를 일으키지 않으며,
+ *         브로커에서 이 client.id 에 quota를 걸어 대역폭을 제한할 수 있습니다.</li>
+ * </ul>
+ */
+@Component
+public class ArchiveExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveExporter.class);
+
+    private static final String TOPIC_CONTRACT_EVENTS = "contract-events";
+    private static final String CLIENT_ID = "insurance-archive-exporter";
+    private static final ZoneId PARTITION_ZONE = ZoneOffset.UTC;
+    private static final DateTimeFormatter FILE_NAME_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    private final ContractRepository contractRepository;
+    private final KafkaProperties kafkaProperties;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "archive-exporter");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${insurance.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${insurance.archive.base-dir:./archive}")
+    private String baseDir;
+
+    @Value("${insurance.archive.page-size:1000}")
+    private int pageSize;
+
+    @Value("${insurance.archive.throttle-ms:50}")
+    private long throttleMs;
+
+    @Value("${insurance.archive.contracts-overlap-ms:300000}")
+    private long contractsOverlapMs;
+
+    public ArchiveExporter(ContractRepository contractRepository, KafkaProperties kafkaProperties) {
+        this.contractRepository = contractRepository;
+        this.kafkaProperties = kafkaProperties;
+    }
+
+    @Scheduled(cron = "${insurance.archive.cron:0 0 3 * * *}")
+    public void scheduledExport() {
+        if (enabled) {
+            exportAsync();
+        }
+    }
+
+    /**
+     * 전용 스레드에서 내보내기를 시작합니다. 이미 실행 중이면 false를 반환합니다.
+     */
+    public boolean exportAsync() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Archive export is already running, skipping.");
+            return false;
+        }
+        executor.submit(() -> {
+            try {
+                export();
+            } catch (Exception e) {
+                log.error("Archive export failed. Checkpoint was not advanced.", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    void export() throws IOException, InterruptedException {
+        ArchiveCheckpoint checkpoint = ArchiveCheckpoint.load(baseDir().resolve("_checkpoint.properties"));
+
+        long contracts = exportContracts(checkpoint);
+        long events = exportInsuranceEvents(checkpoint);
+
+        // 모든 파일이 닫힌 뒤에 체크포인트를 갱신합니다.
+        checkpoint.save();
+        log.info("Archive export finished. contracts={}, insuranceEvents={}, baseDir={}", contracts, events, baseDir().toAbsolutePath());
+    }
+
+    private long exportContracts(ArchiveCheckpoint checkpoint) throws IOException, InterruptedException {
+        // id는 IDENTITY로 발급되어 커밋 순서와 다를 수 있고 DB 재시작 시 1부터 다시 시작하므로 id 대신 createdAt 워터마크를 사용합니다.
+        // 늦게 커밋된 계약을 잡기 위해 워터마크보다 overlap 만큼 앞에서부터 다시 읽고, 이미 내보낸 키(id@createdAt)는 건너뜁니다.
+        LocalDateTime watermark = checkpoint.contractsWatermark();
+        Duration overlap = Duration.ofMillis(contractsOverlapMs);
+        LocalDateTime cursorCreatedAt = watermark == null ? LocalDateTime.of(1970, 1, 1, 0, 0) : watermark.minus(overlap);
+        long cursorId = 0;
+        Set<String> exported = checkpoint.contractsExported();
+        // 재시도 시에는 같은 이름(덮어쓰기), 성공한 실행마다 다른 이름이 되도록 체크포인트 상태로 파일 이름을 정합니다.
+        String fileName = "part-" + FILE_NAME_TIME.format(cursorCreatedAt) + "-" + exported.size() + ".avro";
+        LocalDateTime newWatermark = watermark;
+
+        try (PartitionedAvroWriter<ContractRecord> writer = new PartitionedAvroWriter<>(
+                baseDir().resolve("contracts"), ContractRecord.getClassSchema(), fileName)) {
+            List<Contract> page;
+            do {
+                page = contractRepository.findPageAfter(cursorCreatedAt, cursorId, PageRequest.of(0, pageSize));
+                for (Contract contract : page) {
+                    cursorCreatedAt = contract.getCreatedAt();
+                    cursorId = contract.getId();
+                    if (!exported.add(exportKey(contract))) {
+                        continue;
+                    }
+                    Instant createdAt = contract.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant();
+                    ContractRecord record = ContractRecord.newBuilder()
+                            .setId(contract.getId())
+                            .setContractId(contract.getContractId())
+                            .setCustomerId(contract.getCustomerId())
+                            .setProductId(contract.getProductId())
+                            .setCreatedAt(createdAt)
+                            .build();
+                    writer.append(partitionDate(createdAt), record);
+                    if (newWatermark == null || contract.getCreatedAt().isAfter(newWatermark)) {
+                        newWatermark = contract.getCreatedAt();
+                    }
+                }
+                if (page.size() == pageSize) {
+                    Thread.sleep(throttleMs);
+                }
+            } while (page.size() == pageSize);
+
+            if (newWatermark != null) {
+                // 다음 실행의 재조회 구간(newWatermark - overlap) 밖의 키는 더 이상 필요 없으므로 정리합니다.
+                LocalDateTime retainFrom = newWatermark.minus(overlap);
+                exported.removeIf(key -> LocalDateTime.parse(key.substring(key.indexOf('@') + 1)).isBefore(retainFrom));
+                checkpoint.contractsWatermark(newWatermark);
+                checkpoint.contractsExported(exported);
+            }
+            return writer.written();
+        }
+    }
+
+    private static String exportKey(Contract contract) {
+        return contract.getId() + "@" + contract.getCreatedAt();
+    }
+
+    private long exportInsuranceEvents(ArchiveCheckpoint checkpoint) throws IOException {
+        try (KafkaConsumer<String, InsuranceEvent> consumer = new KafkaConsumer<>(consumerProperties())) {
+            List<TopicPartition> partitions = consumer.partitionsFor(TOPIC_CONTRACT_EVENTS).stream()
+                    .map(PartitionInfo::partition)
+                    .sorted()
+                    .map(partition -> new TopicPartition(TOPIC_CONTRACT_EVENTS, partition))
+                    .toList();
+            consumer.assign(partitions);
+
+            // 실행 시작 시점의 끝 오프셋까지만 읽어 실행 범위를 고정합니다.
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            Map<TopicPartition, Long> startOffsets = new HashMap<>();
+            for (TopicPartition partition : partitions) {
+                long offset = checkpoint.eventsOffset(partition.partition());
+                consumer.seek(partition, offset);
+                startOffsets.put(partition, offset);
+            }
+            String fileName = "part-" + partitions.stream()
+                    .map(partition -> Long.toString(startOffsets.get(partition)))
+                    .collect(Collectors.joining("-")) + ".avro";
+
+            try (PartitionedAvroWriter<InsuranceEvent> writer = new PartitionedAvroWriter<>(
+                    baseDir().resolve("insurance-events"), InsuranceEvent.getClassSchema(), fileName)) {
+                // position()은 컨트롤 레코드 등 값이 없는 오프셋도 건너뛰므로 레코드 오프셋 대신 사용합니다.
+                while (partitions.stream().anyMatch(partition -> consumer.position(partition) < endOffsets.get(partition))) {
+                    for (ConsumerRecord<String, InsuranceEvent> record : consumer.poll(Duration.ofSeconds(1))) {
+                        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                        if (record.offset() < endOffsets.get(partition) && record.value() != null) {
+                            writer.append(partitionDate(Instant.ofEpochMilli(record.value().getEventTimestamp())), record.value());
+                        }
+                    }
+                }
+
+                for (TopicPartition partition : partitions) {
+                    checkpoint.eventsOffset(partition.partition(), Math.min(consumer.position(partition), endOffsets.get(partition)));
+                }
+                return writer.written();
+            }
+        }
+    }
+
+    private Map<String, Object> consumerProperties() {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties();
+        props.put(ConsumerConfig.CLIENT_ID_CONFIG, CLIENT_ID);
+        // assign() 으로 읽고 오프셋은 체크포인트 파일에 저장하므로 그룹/커밋을 사용하지 않습니다.
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // 역직렬화에 실패한 레코드는 값이 null 로 전달되어 아래 poll 루프에서 건너뜁니다.
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, KafkaAvroDeserializer.class);
+        props.put(KafkaAvroDeserializerConfig.SPECIFIC_AVRO_READER_CONFIG, true);
+        return props;
+    }
+
+    private Path baseDir() {
+        return Path.of(baseDir);
+    }
+
+    private static LocalDate partitionDate(Instant instant) {
+        return instant == null ? LocalDate.EPOCH : LocalDate.ofInstant(instant, PARTITION_ZONE);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
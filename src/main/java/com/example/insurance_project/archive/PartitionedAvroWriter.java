@@ -0,0 +1,68 @@
+package com.example.insurance_project.archive;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 레코드를 날짜별 디렉토리(dt=yyyy-MM-dd)의 Avro 컨테이너 파일로 기록합니다.
+ * 파일은 .tmp 로 쓰다가 close 시점에 최종 이름으로 옮기므로, 분석 도구는 완성된 파일만 보게 됩니다.
+ * 같은 실행 ID(fileName)로 다시 실행하면 같은 파일을 덮어쓰므로 재시도해도 중복이 생기지 않습니다.
+ */
+class PartitionedAvroWriter<T extends SpecificRecord> implements Closeable {
+
+    private final Path baseDir;
+    private final Schema schema;
+    private final String fileName;
+    private final Map<LocalDate, DataFileWriter<T>> writers = new HashMap<>();
+    private long written;
+
+    PartitionedAvroWriter(Path baseDir, Schema schema, String fileName) {
+        this.baseDir = baseDir;
+        this.schema = schema;
+        this.fileName = fileName;
+    }
+
+    void append(LocalDate date, T record) throws IOException {
+        DataFileWriter<T> writer = writers.get(date);
+        if (writer == null) {
+            Path dir = partitionDir(date);
+            Files.createDirectories(dir);
+            writer = new DataFileWriter<>(new SpecificDatumWriter<T>(schema));
+            writer.setCodec(CodecFactory.snappyCodec());
+            writer.create(schema, dir.resolve(fileName + ".tmp").toFile());
+            writers.put(date, writer);
+        }
+        writer.append(record);
+        written++;
+    }
+
+    long written() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Map.Entry<LocalDate, DataFileWriter<T>> entry : writers.entrySet()) {
+            entry.getValue().close();
+            Path dir = partitionDir(entry.getKey());
+            Files.move(dir.resolve(fileName + ".tmp"), dir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+        }
+        writers.clear();
+    }
+
+    private Path partitionDir(LocalDate date) {
+        return baseDir.resolve("dt=" + date);
+    }
+}
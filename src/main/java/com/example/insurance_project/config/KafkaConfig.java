@@ -1,11 +1,17 @@
 package com.example.insurance_project.config;
 
+import com.example.insurance_project.notification.NotificationDispatcher;
+import com.example.insurance_project.notification.NotificationRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.util.backoff.FixedBackOff;
@@ -14,10 +20,12 @@ import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 
-import org.springframework.context.annotation.Lazy;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+// 이 클래스의 빈들은 모든 @KafkaListener 컨테이너가 사용하므로 @Lazy 를 붙여도 기동 시점에 생성됩니다.
+// 지연 초기화 대상은 LazyInitializationConfig 와 spring.main.lazy-initialization 으로 관리합니다.
 @Configuration
-@Lazy
 public class KafkaConfig {
 
     // KafkaTemplate을 직접 빈으로 정의하므로 생성자 주입 제거
@@ -37,11 +45,17 @@ public class KafkaConfig {
     }
 
     @Bean
-    public DefaultErrorHandler errorHandler(KafkaTemplate<Object, Object> kafkaTemplate) { // KafkaTemplate을 주입받도록 변경
+    public DefaultErrorHandler errorHandler(KafkaTemplate<Object, Object> kafkaTemplate, // KafkaTemplate을 주입받도록 변경
+                                            KafkaTemplate<String, byte[]> rawInsuranceEventKafkaTemplate) {
         // DeadLetterPublishingRecoverer를 사용하여 메시지를 DLQ로 보냅니다.
-        // 첫 번째 인자는 KafkaTemplate, 두 번째 인자는 DLT 토픽을 결정하는 함수입니다.
+        // 첫 번째 인자는 값 타입별 KafkaTemplate, 두 번째 인자는 DLT 토픽을 결정하는 함수입니다.
+        // 역직렬화에 실패한 레코드는 원본 byte[] 그대로 보내야 하므로 ByteArraySerializer 템플릿을 먼저 매칭합니다.
+        // (KafkaAvroSerializer 로 보내면 byte[] 를 Avro bytes 타입으로 다시 감싸 DLT 스키마가 바뀝니다.)
         // 여기서는 원본 토픽명에 "-dlt" 접미사를 붙여 DLQ 토픽을 지정합니다.
-        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, rawInsuranceEventKafkaTemplate);
+        templates.put(Object.class, kafkaTemplate);
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(templates,
                 (r, e) -> new TopicPartition(r.topic() + "-dlt", r.partition()));
 
         // FixedBackOff를 사용하여 재시도 정책을 정의합니다.
@@ -61,9 +75,31 @@ public class KafkaConfig {
         return errorHandler;
     }
 
+    // 정적 그룹 멤버십: 재시작한 컨슈머가 같은 group.instance.id 로 session.timeout.ms 안에 돌아오면 리밸런스가 일어나지 않습니다.
+    // 파드 이름(HOSTNAME)이 재시작 후에도 같아야 하므로(StatefulSet 등) 기본값은 비활성입니다.
+    @Value("${insurance.kafka.static-membership.enabled:false}")
+    private boolean staticMembershipEnabled;
+
+    @Value("${insurance.kafka.static-membership.instance-id:${HOSTNAME:}}")
+    private String groupInstanceId;
+
+    @Value("${insurance.kafka.static-membership.session-timeout-ms:60000}")
+    private int staticSessionTimeoutMs;
+
+    // 직접 만든 factory 에는 Spring Boot 의 spring.kafka.listener.auto-startup 이 적용되지 않으므로 직접 반영합니다.
+    // (AppCDS 학습 실행 프로필 application-cds-training.properties 에서 끕니다.)
+    @Value("${spring.kafka.listener.auto-startup:true}")
+    private boolean listenerAutoStartup;
+
     @Bean
     public ConsumerFactory<Object, Object> consumerFactory(KafkaProperties kafkaProperties) {
-        return new DefaultKafkaConsumerFactory<>(kafkaProperties.buildConsumerProperties());
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties();
+        if (staticMembershipEnabled && !groupInstanceId.isBlank()) {
+            // concurrency > 1 인 컨테이너는 Spring Kafka가 컨슈머마다 "-n" 접미사를 붙여 고유하게 만듭니다.
+            props.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, groupInstanceId);
+            props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, staticSessionTimeoutMs);
+        }
+        return new DefaultKafkaConsumerFactory<>(props);
     }
 
     // 모든 KafkaListener에 이 errorHandler를 적용하려면
@@ -76,7 +112,30 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
+        factory.setAutoStartup(listenerAutoStartup);
         factory.setCommonErrorHandler(errorHandler); // 우리가 정의한 errorHandler를 설정합니다。
         return factory;
     }
+
+    // notification-group-avro 리스너 전용 factory 입니다.
+    // NotificationDispatcher가 발송을 마친 뒤 다른 스레드에서 acknowledge 하므로 수동 ack + 비순차(async) ack를 사용합니다.
+    // 컨테이너는 ack가 연속된 오프셋까지만 커밋하고, 이전 poll의 ack가 모두 올 때까지 fetch만 멈춘 채 poll(하트비트)을 계속합니다.
+    // 파티션이 회수되면 커밋 전에 그 파티션의 모인 알림을 발송/ack 합니다. (NotificationRebalanceListener)
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> notificationKafkaListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory,
+            DefaultErrorHandler errorHandler,
+            NotificationDispatcher notificationDispatcher,
+            @Value("${insurance.notification.revoke-timeout-ms:5000}") long revokeTimeoutMs) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setAutoStartup(listenerAutoStartup);
+        factory.setCommonErrorHandler(errorHandler);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        factory.getContainerProperties().setConsumerRebalanceListener(
+                new NotificationRebalanceListener(notificationDispatcher, revokeTimeoutMs));
+        return factory;
+    }
 }
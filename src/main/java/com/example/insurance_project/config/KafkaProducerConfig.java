@@ -1,8 +1,15 @@
 package com.example.insurance_project.config;
 
+import com.example.insurance_project.kafka.InsuranceEventWireFormat;
 import com.example.insurance_project.kafka.avro.InsuranceEvent; // Avro InsuranceEvent 임포트
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClientFactory;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroSerializer; // KafkaAvroSerializer 임포트
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.ssl.SslBundles;
@@ -13,6 +20,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 // import org.springframework.kafka.support.serializer.JsonSerializer; // JSON serializer는 더 이상 사용하지 않으므로 주석 처리
 
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -35,18 +43,16 @@ public class KafkaProducerConfig {
      */
     @Bean
     public ProducerFactory<String, InsuranceEvent> insuranceEventProducerFactory(KafkaProperties kafkaProperties, SslBundles sslBundles) {
-        log.info("DEBUG: insuranceEventProducerFactory bean is being called.");
         Map<String, Object> configProps = kafkaProperties.buildProducerProperties();
 
-        log.info("DEBUG: Initial configProps from kafkaProperties.buildProducerProperties(): {}", configProps);
-
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class.getName());
 
 
         // 클라이언트 ID 명시적 설정 (디버깅용)
         configProps.put(ProducerConfig.CLIENT_ID_CONFIG, "my-custom-producer");
-        log.info("DEBUG: Final configProps before returning ProducerFactory: {}", configProps);
+        // 설정 맵 전체에는 sasl.jaas.config 등 민감 정보가 포함되므로 키 목록만 DEBUG로 남깁니다.
+        log.debug("insuranceEventProducerFactory config keys: {}", configProps.keySet());
 
         return new DefaultKafkaProducerFactory<>(configProps);
     }
@@ -57,10 +63,53 @@ public class KafkaProducerConfig {
      */
     @Bean
     public KafkaTemplate<String, InsuranceEvent> avroInsuranceEventKafkaTemplate(ProducerFactory<String, InsuranceEvent> insuranceEventProducerFactory) {
-        log.info("DEBUG: avroInsuranceEventKafkaTemplate bean is being called.");
         return new KafkaTemplate<>(insuranceEventProducerFactory);
     }
 
+    /**
+     * 이미 Confluent Avro wire format으로 인코딩된 바이트를 그대로 전송하기 위한 ProducerFactory를 생성합니다.
+     * 값 직렬화는 ByteArraySerializer가 배열을 그대로 넘기므로 객체 생성이나 재인코딩이 없습니다.
+     * @return ProducerFactory<String, byte[]> 객체
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> rawInsuranceEventProducerFactory(KafkaProperties kafkaProperties) {
+        Map<String, Object> configProps = kafkaProperties.buildProducerProperties();
+
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        configProps.put(ProducerConfig.CLIENT_ID_CONFIG, "my-custom-producer-raw");
+        log.debug("rawInsuranceEventProducerFactory config keys: {}", configProps.keySet());
+
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    /**
+     * rawInsuranceEventProducerFactory를 기반으로 wire format 바이트를 보내는 KafkaTemplate을 생성합니다.
+     * @return KafkaTemplate<String, byte[]> 객체
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> rawInsuranceEventKafkaTemplate(ProducerFactory<String, byte[]> rawInsuranceEventProducerFactory) {
+        return new KafkaTemplate<>(rawInsuranceEventProducerFactory);
+    }
+
+    /**
+     * pass-through 경로에서 스키마 ID 검증/등록에 사용하는 Schema Registry 클라이언트입니다.
+     * KafkaAvroSerializer와 같은 spring.kafka.properties.* 설정을 사용하며, mock:// URL도 동일하게 처리됩니다.
+     */
+    @Bean
+    public SchemaRegistryClient insuranceSchemaRegistryClient(KafkaProperties kafkaProperties) {
+        Map<String, String> props = kafkaProperties.getProperties();
+        String url = props.get(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG);
+        return SchemaRegistryClientFactory.newClient(List.of(url.split(",")),
+                AbstractKafkaSchemaSerDeConfig.MAX_SCHEMAS_PER_SUBJECT_DEFAULT,
+                List.of(new AvroSchemaProvider()), props, null);
+    }
+
+    @Bean
+    public InsuranceEventWireFormat insuranceEventWireFormat(SchemaRegistryClient insuranceSchemaRegistryClient, ObjectMapper objectMapper) {
+        return new InsuranceEventWireFormat(insuranceSchemaRegistryClient, objectMapper.getFactory(), "contract-events");
+    }
+
     // contractEventProducerFactory() 메서드 제거
     // contractEventKafkaTemplate() 메서드 제거
 
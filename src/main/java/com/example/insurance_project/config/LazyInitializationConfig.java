@@ -0,0 +1,44 @@
+package com.example.insurance_project.config;
+
+import com.example.insurance_project.archive.ArchiveExporter;
+import com.example.insurance_project.kafka.ExternalApiDataScheduler;
+import com.example.insurance_project.kafka.GracefulShutdownCoordinator;
+import com.example.insurance_project.kafka.KafkaConsumerService;
+import com.example.insurance_project.kafka.ListenerConcurrencyController;
+import org.apache.kafka.streams.kstream.GlobalKTable;
+import org.apache.kafka.streams.kstream.KStream;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * spring.main.lazy-initialization=true 일 때 지연 초기화에서 제외할 빈을 지정합니다.
+ * 컨트롤러, 조회 서비스, Actuator 엔드포인트 등은 첫 사용 시점까지 생성을 미루고,
+ * 기동 시점에 반드시 등록되어야 하는 빈만 즉시 생성합니다.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * 지연 초기화하면 동작 자체가 등록되지 않는 빈들입니다.
+     * <ul>
+     *     <li>KafkaConsumerService: 빈이 생성될 때 @KafkaListener 컨테이너가 등록됩니다.</li>
+     *     <li>ExternalApiDataScheduler, ListenerConcurrencyController, ArchiveExporter: 빈이 생성될 때 @Scheduled 작업이 등록됩니다.</li>
+     *     <li>KStream / GlobalKTable: Kafka Streams 시작 전에 토폴로지가 구성되어 있어야 합니다.</li>
+     *     <li>GracefulShutdownCoordinator: 시작되어 있어야 종료 시 stop() 으로 배출 순서를 제어합니다.</li>
+     * </ul>
+     * BeanFactoryPostProcessor에서 조회되므로 static 메서드로 등록합니다.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerKafkaComponents() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                KafkaConsumerService.class,
+                ExternalApiDataScheduler.class,
+                ListenerConcurrencyController.class,
+                ArchiveExporter.class,
+                GracefulShutdownCoordinator.class,
+                KStream.class,
+                GlobalKTable.class
+        );
+    }
+}
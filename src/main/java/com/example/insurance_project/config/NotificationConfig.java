@@ -0,0 +1,90 @@
+package com.example.insurance_project.config;
+
+import com.example.insurance_project.notification.NotificationChannel;
+import com.example.insurance_project.notification.NotificationDispatcher;
+import com.example.insurance_project.notification.NotificationSender;
+import com.example.insurance_project.notification.StubNotificationSender;
+import com.example.insurance_project.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 고객 알림 발송(NotificationDispatcher) 설정입니다.
+ * NotificationSender 빈이 등록되지 않은 채널은 로그만 남기는 StubNotificationSender로 발송합니다.
+ * 각 한도는 application.properties 의 insurance.notification.* 속성으로 조정합니다.
+ */
+@Configuration
+public class NotificationConfig {
+
+    // 고객별 이벤트 묶음 창 / 최대 묶음 크기
+    @Value("${insurance.notification.window-ms:500}")
+    private long windowMs;
+    @Value("${insurance.notification.max-batch-size:20}")
+    private int maxBatchSize;
+
+    // 발송 스레드 수 / 채널별 동시 발송 수
+    @Value("${insurance.notification.dispatch-threads:16}")
+    private int dispatchThreads;
+    @Value("${insurance.notification.max-concurrency-per-channel:8}")
+    private int maxConcurrencyPerChannel;
+
+    // 채널별 초당 발송 수 / 버스트
+    @Value("${insurance.notification.email.permits-per-second:50}")
+    private double emailPermitsPerSecond;
+    @Value("${insurance.notification.email.burst:100}")
+    private int emailBurst;
+    @Value("${insurance.notification.kakao.permits-per-second:20}")
+    private double kakaoPermitsPerSecond;
+    @Value("${insurance.notification.kakao.burst:40}")
+    private int kakaoBurst;
+
+    // 발송 실패 시 재시도
+    @Value("${insurance.notification.max-attempts:3}")
+    private int maxAttempts;
+    @Value("${insurance.notification.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+
+    @Value("${insurance.notification.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    // 스텁 발송기 (실제 발송 구현이 없는 채널에 사용)
+    @Value("${insurance.notification.stub.enabled:true}")
+    private boolean stubEnabled;
+    @Value("${insurance.notification.stub.latency-ms:0}")
+    private long stubLatencyMs;
+
+    @Bean
+    public NotificationDispatcher notificationDispatcher(ObjectProvider<NotificationSender> notificationSenders, MeterRegistry meterRegistry) {
+        List<NotificationSender> senders = new ArrayList<>(notificationSenders.orderedStream().toList());
+        Set<NotificationChannel> missing = EnumSet.allOf(NotificationChannel.class);
+        senders.forEach(sender -> missing.remove(sender.channel()));
+        if (stubEnabled) {
+            missing.forEach(channel -> senders.add(new StubNotificationSender(channel, stubLatencyMs)));
+        }
+
+        return new NotificationDispatcher(
+                senders,
+                Map.of(
+                        NotificationChannel.EMAIL, new TokenBucket(emailPermitsPerSecond, emailBurst),
+                        NotificationChannel.KAKAO, new TokenBucket(kakaoPermitsPerSecond, kakaoBurst)
+                ),
+                maxConcurrencyPerChannel,
+                dispatchThreads,
+                windowMs,
+                maxBatchSize,
+                maxAttempts,
+                retryBackoffMs,
+                shutdownTimeoutMs,
+                meterRegistry
+        );
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.insurance_project.config;
+
+import com.example.insurance_project.ratelimit.AdaptiveConcurrencyLimiter;
+import com.example.insurance_project.ratelimit.RateLimitFilter;
+import com.example.insurance_project.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+
+/**
+ * 계약/이벤트 수신 API의 유입량 제한(rate limiting)과 부하 차단(load shedding) 설정입니다.
+ * 각 한도는 application.properties 의 insurance.ratelimit.* 속성으로 조정합니다.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${insurance.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    // 엔드포인트별 초당 허용 요청 수 / 버스트
+    @Value("${insurance.ratelimit.endpoint.sign.permits-per-second:500}")
+    private double signPermitsPerSecond;
+    @Value("${insurance.ratelimit.endpoint.sign.burst:1000}")
+    private int signBurst;
+    @Value("${insurance.ratelimit.endpoint.batch-sign.permits-per-second:50}")
+    private double batchSignPermitsPerSecond;
+    @Value("${insurance.ratelimit.endpoint.batch-sign.burst:100}")
+    private int batchSignBurst;
+    @Value("${insurance.ratelimit.endpoint.insurance-event.permits-per-second:1000}")
+    private double insuranceEventPermitsPerSecond;
+    @Value("${insurance.ratelimit.endpoint.insurance-event.burst:2000}")
+    private int insuranceEventBurst;
+
+    // 클라이언트별 초당 허용 요청 수 / 버스트
+    @Value("${insurance.ratelimit.client.permits-per-second:100}")
+    private double clientPermitsPerSecond;
+    @Value("${insurance.ratelimit.client.burst:200}")
+    private int clientBurst;
+
+    // 적응형 동시 처리 한도 (엔드포인트마다 같은 설정으로 따로 둡니다)
+    @Value("${insurance.ratelimit.concurrency.initial-limit:64}")
+    private int initialLimit;
+    @Value("${insurance.ratelimit.concurrency.min-limit:8}")
+    private int minLimit;
+    @Value("${insurance.ratelimit.concurrency.max-limit:400}")
+    private int maxLimit;
+    @Value("${insurance.ratelimit.concurrency.target-latency-ms:250}")
+    private long targetLatencyMs;
+    @Value("${insurance.ratelimit.concurrency.backoff-ratio:0.9}")
+    private double backoffRatio;
+    // batch-sign 은 요청 하나에 여러 건을 처리하므로 목표 지연을 따로 둡니다.
+    @Value("${insurance.ratelimit.concurrency.batch-sign.target-latency-ms:1000}")
+    private long batchSignTargetLatencyMs;
+
+    private RateLimitFilter filter;
+
+    @Bean
+    public RateLimitFilter ingressRateLimitFilter(MeterRegistry meterRegistry) {
+        filter = new RateLimitFilter(
+                Map.of(
+                        "sign", new TokenBucket(signPermitsPerSecond, signBurst),
+                        "batch-sign", new TokenBucket(batchSignPermitsPerSecond, batchSignBurst),
+                        "insurance-event", new TokenBucket(insuranceEventPermitsPerSecond, insuranceEventBurst)
+                ),
+                () -> new TokenBucket(clientPermitsPerSecond, clientBurst),
+                Map.of(
+                        "sign", concurrencyLimiter(targetLatencyMs),
+                        "batch-sign", concurrencyLimiter(batchSignTargetLatencyMs),
+                        "insurance-event", concurrencyLimiter(targetLatencyMs)
+                ),
+                enabled,
+                meterRegistry
+        );
+        return filter;
+    }
+
+    private AdaptiveConcurrencyLimiter concurrencyLimiter(long targetLatencyMs) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, targetLatencyMs, backoffRatio);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitFilter ingressRateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(ingressRateLimitFilter);
+        registration.addUrlPatterns("/api/contracts/*", "/kafka/*");
+        // 다른 필터보다 먼저 실행되어 거절할 요청에는 비용을 쓰지 않도록 합니다.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        // 한도를 끈 경우에도 종료 시 유입 차단(startDraining)은 필요하므로 필터는 항상 등록합니다.
+        return registration;
+    }
+
+    // 유휴 클라이언트 버킷 정리는 요청 경로가 아닌 스케줄러 스레드에서 수행합니다.
+    @Scheduled(fixedDelayString = "${insurance.ratelimit.client.eviction-interval-ms:10000}")
+    public void evictIdleClientBuckets() {
+        if (enabled && filter != null) {
+            filter.evictIdleClientBuckets();
+        }
+    }
+}
@@ -1,23 +1,47 @@
 package com.example.insurance_project.controller;
 
+import com.example.insurance_project.kafka.InsuranceEventWireFormat;
 import com.example.insurance_project.kafka.KafkaProducerService;
+import com.example.insurance_project.kafka.PolicyStateQueryService;
 import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/kafka")
 public class KafkaController {
 
+    // 게이트웨이가 Confluent Avro wire format(magic byte + schema id + Avro binary)으로 미리 인코딩한 본문
+    public static final String AVRO_WIRE_FORMAT = "application/vnd.insurance.avro";
+    // 객체로 바인딩하지 않고 스트리밍으로 검증/인코딩할 InsuranceEvent JSON 본문
+    public static final String STREAMING_JSON = "application/vnd.insurance.event+json";
+    // 스트림 기동/리밸런스 중 상태 조회를 다시 시도할 때까지의 권장 대기 시간(초)
+    private static final long POLICY_STATE_RETRY_AFTER_SECONDS = 1;
+
     private final KafkaProducerService producerService;
+    private final PolicyStateQueryService policyStateQueryService;
+    private final InsuranceEventWireFormat wireFormat;
 
     @Autowired
-    public KafkaController(KafkaProducerService producerService) {
+    public KafkaController(KafkaProducerService producerService, PolicyStateQueryService policyStateQueryService,
+                           InsuranceEventWireFormat wireFormat) {
         this.producerService = producerService;
+        this.policyStateQueryService = policyStateQueryService;
+        this.wireFormat = wireFormat;
     }
 
     @PostMapping("/{key}/insurance-event")
@@ -25,4 +49,44 @@ public class KafkaController {
         producerService.sendInsuranceEventWithKey(key, event);
         return "InsuranceEvent with key sent to Kafka topic";
     }
+
+    // 미리 인코딩된 Avro 바이트는 헤더(magic byte, schema id)만 확인하고 그대로 Kafka로 전달합니다.
+    @PostMapping(value = "/{key}/insurance-event", consumes = AVRO_WIRE_FORMAT)
+    public String sendRawInsuranceEvent(@PathVariable("key") String key, @RequestBody byte[] payload) throws IOException {
+        try {
+            wireFormat.validate(payload);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        producerService.sendRawInsuranceEvent(key, null, payload);
+        return "InsuranceEvent with key sent to Kafka topic";
+    }
+
+    // JSON 본문을 InsuranceEvent 객체로 바인딩하지 않고, 요청 스트림을 읽으면서 바로 Avro wire format으로 인코딩합니다.
+    @PostMapping(value = "/{key}/insurance-event", consumes = STREAMING_JSON)
+    public String sendStreamingJsonInsuranceEvent(@PathVariable("key") String key, InputStream body) throws IOException {
+        InsuranceEventWireFormat.EncodedEvent encoded;
+        try {
+            encoded = wireFormat.encodeJson(body);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        producerService.sendRawInsuranceEvent(key, encoded.policyNumber(), encoded.payload());
+        return "InsuranceEvent with key sent to Kafka topic";
+    }
+
+    // policy-state GlobalKTable에서 최신 상태를 조회합니다. (Avro 레코드의 JSON 표현을 그대로 반환)
+    // 스트림이 아직 RUNNING이 아니면 503 + Retry-After, 실제로 키가 없을 때만 404를 반환합니다.
+    @GetMapping(value = "/policies/{policyNumber}/state", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getPolicyState(@PathVariable("policyNumber") String policyNumber) {
+        try {
+            return policyStateQueryService.findLatest(policyNumber)
+                    .map(event -> ResponseEntity.ok(event.toString()))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (PolicyStateQueryService.PolicyStateUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(POLICY_STATE_RETRY_AFTER_SECONDS))
+                    .build();
+        }
+    }
 }
@@ -5,6 +5,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
@@ -13,6 +15,8 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+// ArchiveExporter 의 키셋 페이지 조회(ContractRepository.findPageAfter)가 (createdAt, id) 순서로 탐색합니다.
+@Table(indexes = @Index(name = "idx_contract_created_at_id", columnList = "createdAt, id"))
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Contract {
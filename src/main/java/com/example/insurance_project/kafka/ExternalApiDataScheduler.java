@@ -8,12 +8,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -28,6 +30,9 @@ public class ExternalApiDataScheduler {
 
     private volatile boolean running = true; // <--- Add this flag
 
+    // 진행 중인 Faker API 조회 -> Kafka 전송 파이프라인 (종료 시 완료를 기다리거나 취소하기 위해 보관)
+    private volatile Disposable inFlight;
+
     // 10초마다 실행
     @Scheduled(fixedRate = 10000)
     public void fetchAndProduceData() {
@@ -37,7 +42,7 @@ public class ExternalApiDataScheduler {
         }
         log.info("Fetching data from Faker API...");
 
-        fetchFakeInsuranceData()
+        inFlight = fetchFakeInsuranceData()
                 .flatMap(this::transformToInsuranceEvent)
                 .doOnNext(kafkaProducerService::sendInsuranceEvent)
                 .subscribe(
@@ -86,10 +91,34 @@ public class ExternalApiDataScheduler {
         }
     }
 
+    /**
+     * 새 조회를 막고, 진행 중인 파이프라인이 끝날 때까지 최대 timeoutMs 동안 기다립니다.
+     * 시간 안에 끝나지 않으면 파이프라인을 취소합니다. (이미 send 된 이벤트는 이후 프로듀서 flush 단계에서 전송됩니다)
+     * @return 진행 중인 파이프라인이 시간 안에 끝났으면 true
+     */
+    public boolean stopIntake(long timeoutMs) throws InterruptedException {
+        this.running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Disposable current = inFlight;
+        while (current != null && !current.isDisposed()) {
+            if (System.nanoTime() >= deadline) {
+                log.warn("In-flight Faker API pipeline did not finish within {} ms, cancelling.", timeoutMs);
+                current.dispose();
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
     @PreDestroy // <--- Add this method
     public void onShutdown() {
         log.info("ExternalApiDataScheduler is shutting down.");
         this.running = false; // Set flag to false to prevent new tasks
-        // Optionally, add a short delay or wait for active tasks to complete
+        // 정상 종료 시에는 GracefulShutdownCoordinator가 stopIntake()로 먼저 완료를 기다립니다.
+        Disposable current = inFlight;
+        if (current != null) {
+            current.dispose();
+        }
     }
 }
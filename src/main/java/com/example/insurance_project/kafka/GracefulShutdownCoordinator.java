@@ -0,0 +1,244 @@
+package com.example.insurance_project.kafka;
+
+import com.example.insurance_project.notification.NotificationDispatcher;
+import com.example.insurance_project.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 애플리케이션 종료 시 Kafka 관련 작업을 정해진 순서로 배출(drain)합니다.
+ * <ol>
+ *     <li>http-intake: RateLimitFilter를 배출 모드로 바꿔 계약/이벤트 수신 요청을 503으로 거절하고, 처리 중인 요청이 끝나기를 기다립니다.</li>
+ *     <li>intake: ExternalApiDataScheduler의 새 조회를 막고 진행 중인 파이프라인이 끝나기를 기다립니다.</li>
+ *     <li>producer-flush: 모든 KafkaTemplate의 프로듀서 버퍼를 deadline 안에 flush 합니다.</li>
+ *     <li>autoscaling: ListenerConcurrencyController를 멈춰, 이후 단계에서 멈춘 컨테이너를 재시작/재개하지 않도록 합니다.</li>
+ *     <li>notification: 리스너 fetch를 멈추고(pause) NotificationDispatcher에 모인 알림을 모두 발송/acknowledge 합니다.</li>
+ *     <li>listeners: 리스너 컨테이너를 멈춥니다. 처리 중인 레코드를 마치고 오프셋을 커밋한 뒤 컨슈머를 닫습니다.</li>
+ * </ol>
+ * SmartLifecycle 중 가장 높은 phase(Integer.MAX_VALUE)를 사용하므로 리스너 컨테이너(KafkaListenerEndpointRegistry)뿐 아니라
+ * 웹 서버의 graceful shutdown(WebServerGracefulShutdownLifecycle)보다도 먼저 실행됩니다.
+ * 그래서 웹 서버가 아직 요청을 받는 동안 첫 단계에서 레코드를 만드는 HTTP 유입을 직접 막아, flush 이후에 새 레코드가 생기지 않도록 합니다.
+ * <p>
+ * 단계별 소요 시간은 insurance.shutdown.drain{stage} Timer 와 마지막 INFO 로그 한 줄("Graceful shutdown finished ...")로 남깁니다.
+ * 종료 중인 파드는 Prometheus가 더 수집하지 못할 수 있으므로 소요 시간을 insurance.shutdown.report-file 에 기록해 두고,
+ * 다음 기동 시 insurance.shutdown.last.drain{stage} 게이지(초)로 다시 노출합니다.
+ * (파드가 바뀌어도 남도록 하려면 이 경로에 파드보다 오래 유지되는 볼륨을 마운트합니다.)
+ */
+@Component
+public class GracefulShutdownCoordinator implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GracefulShutdownCoordinator.class);
+
+    private final RateLimitFilter rateLimitFilter;
+    private final ExternalApiDataScheduler externalApiDataScheduler;
+    private final NotificationDispatcher notificationDispatcher;
+    private final KafkaListenerEndpointRegistry listenerEndpointRegistry;
+    private final ObjectProvider<KafkaTemplate<?, ?>> kafkaTemplates;
+    private final ListenerConcurrencyController listenerConcurrencyController;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean running;
+
+    @Value("${insurance.shutdown.http-timeout-ms:10000}")
+    private long httpTimeoutMs;
+
+    @Value("${insurance.shutdown.intake-timeout-ms:5000}")
+    private long intakeTimeoutMs;
+
+    @Value("${insurance.shutdown.producer-flush-timeout-ms:5000}")
+    private long producerFlushTimeoutMs;
+
+    @Value("${insurance.shutdown.autoscaling-timeout-ms:5000}")
+    private long autoscalingTimeoutMs;
+
+    @Value("${insurance.shutdown.notification-timeout-ms:10000}")
+    private long notificationTimeoutMs;
+
+    @Value("${insurance.shutdown.report-file:${java.io.tmpdir}/insurance-shutdown-report.properties}")
+    private Path reportFile;
+
+    public GracefulShutdownCoordinator(RateLimitFilter rateLimitFilter,
+                                       ExternalApiDataScheduler externalApiDataScheduler,
+                                       NotificationDispatcher notificationDispatcher,
+                                       KafkaListenerEndpointRegistry listenerEndpointRegistry,
+                                       ObjectProvider<KafkaTemplate<?, ?>> kafkaTemplates,
+                                       ListenerConcurrencyController listenerConcurrencyController,
+                                       MeterRegistry meterRegistry) {
+        this.rateLimitFilter = rateLimitFilter;
+        this.externalApiDataScheduler = externalApiDataScheduler;
+        this.notificationDispatcher = notificationDispatcher;
+        this.listenerEndpointRegistry = listenerEndpointRegistry;
+        this.kafkaTemplates = kafkaTemplates;
+        this.listenerConcurrencyController = listenerConcurrencyController;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void start() {
+        publishLastReport();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        log.info("Graceful shutdown started: draining http intake, scheduler intake, producers, notifications and listeners.");
+        long start = System.nanoTime();
+        Map<String, StageResult> stages = new LinkedHashMap<>();
+        try {
+            stage(stages, "http-intake", () -> {
+                rateLimitFilter.startDraining();
+                return rateLimitFilter.awaitInFlight(httpTimeoutMs);
+            });
+            stage(stages, "intake", () -> externalApiDataScheduler.stopIntake(intakeTimeoutMs));
+            stage(stages, "producer-flush", this::flushProducers);
+            stage(stages, "autoscaling", () -> listenerConcurrencyController.suspend(autoscalingTimeoutMs));
+            stage(stages, "notification", () -> {
+                listenerEndpointRegistry.getListenerContainers().forEach(MessageListenerContainer::pause);
+                return notificationDispatcher.drain(notificationTimeoutMs);
+            });
+            stage(stages, "listeners", () -> {
+                listenerEndpointRegistry.stop();
+                return true;
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Graceful shutdown was interrupted.");
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            boolean completed = stages.values().stream().allMatch(StageResult::completed);
+            drainTimer("total", completed).record(elapsed, TimeUnit.NANOSECONDS);
+            StringJoiner summary = new StringJoiner(", ");
+            stages.forEach((name, result) -> summary.add(name + "=" + result.elapsedMs() + "ms" + (result.completed() ? "" : " timeout")));
+            stages.put("total", new StageResult(TimeUnit.NANOSECONDS.toMillis(elapsed), completed));
+            log.info("Graceful shutdown finished in {} ms ({}).", TimeUnit.NANOSECONDS.toMillis(elapsed), summary);
+            writeReport(stages);
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    private void stage(Map<String, StageResult> stages, String name, DrainStage stage) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean completed = stage.drain();
+        long elapsed = System.nanoTime() - start;
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        drainTimer(name, completed).record(elapsed, TimeUnit.NANOSECONDS);
+        stages.put(name, new StageResult(elapsedMs, completed));
+        if (completed) {
+            log.info("Shutdown stage '{}' drained in {} ms.", name, elapsedMs);
+        } else {
+            log.warn("Shutdown stage '{}' hit its deadline after {} ms.", name, elapsedMs);
+        }
+    }
+
+    private Timer drainTimer(String stage, boolean completed) {
+        return Timer.builder("insurance.shutdown.drain")
+                .description("Time spent draining Kafka work during graceful shutdown")
+                .tag("stage", stage)
+                .tag("outcome", completed ? "drained" : "timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 단계별 소요 시간(ms)을 report-file 에 기록합니다. 실패해도 종료는 계속 진행합니다.
+     */
+    private void writeReport(Map<String, StageResult> stages) {
+        Properties report = new Properties();
+        stages.forEach((name, result) -> report.setProperty(name, Long.toString(result.elapsedMs())));
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(reportFile)) {
+                report.store(writer, "Last graceful shutdown drain durations (ms)");
+            }
+        } catch (IOException e) {
+            log.warn("Could not write graceful shutdown report to {}: {}", reportFile, e.getMessage());
+        }
+    }
+
+    /**
+     * 이전 종료 때 기록한 단계별 소요 시간을 insurance.shutdown.last.drain{stage} 게이지로 노출합니다.
+     */
+    private void publishLastReport() {
+        if (!Files.isReadable(reportFile)) {
+            return;
+        }
+        Properties report = new Properties();
+        try (Reader reader = Files.newBufferedReader(reportFile)) {
+            report.load(reader);
+        } catch (IOException e) {
+            log.warn("Could not read graceful shutdown report from {}: {}", reportFile, e.getMessage());
+            return;
+        }
+        for (String stage : report.stringPropertyNames()) {
+            try {
+                double seconds = Long.parseLong(report.getProperty(stage)) / 1000.0;
+                Gauge.builder("insurance.shutdown.last.drain", () -> seconds)
+                        .description("Drain duration of each stage in the previous graceful shutdown")
+                        .baseUnit("seconds")
+                        .tag("stage", stage)
+                        .register(meterRegistry);
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed graceful shutdown report entry {}={}", stage, report.getProperty(stage));
+            }
+        }
+    }
+
+    private boolean flushProducers() throws InterruptedException {
+        CompletableFuture<?>[] flushes = kafkaTemplates.orderedStream()
+                .map(template -> CompletableFuture.runAsync(template::flush))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(flushes).get(producerFlushTimeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            log.warn("Producer flush failed during shutdown.", e.getCause());
+            return false;
+        }
+    }
+
+    private record StageResult(long elapsedMs, boolean completed) {
+    }
+
+    @FunctionalInterface
+    private interface DrainStage {
+        /**
+         * @return deadline 안에 배출을 마쳤으면 true
+         */
+        boolean drain() throws InterruptedException;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.insurance_project.kafka;
+
+import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * InsuranceEvent를 SpecificRecord 객체로 만들지 않고 Confluent Avro wire format 바이트로 다루는 유틸리티입니다.
+ * <pre>
+ * [0x00 magic byte][4 byte schema id][Avro binary]
+ * </pre>
+ * <ul>
+ *     <li>{@link #validate(byte[])} : 게이트웨이가 미리 인코딩한 바이트의 magic byte, 스키마 ID와 Avro 본문 구조를 확인합니다.</li>
+ *     <li>{@link #encodeJson(InputStream)} : JSON을 스트리밍으로 읽으며 검증하고 곧바로 Avro binary로 인코딩합니다.</li>
+ * </ul>
+ * 결과 바이트는 KafkaAvroSerializer가 만든 것과 같으므로 기존 KafkaAvroDeserializer 컨슈머가 그대로 읽을 수 있습니다.
+ */
+public class InsuranceEventWireFormat {
+
+    private static final byte MAGIC_BYTE = 0x0;
+    private static final int HEADER_SIZE = 5;
+    private static final Schema SCHEMA = InsuranceEvent.getClassSchema();
+
+    private final SchemaRegistryClient schemaRegistryClient;
+    private final JsonFactory jsonFactory;
+    private final String subject;
+
+    // 검증을 통과한 스키마 ID별 writer 스키마 (레지스트리 조회는 ID당 한 번만)
+    private final Map<Integer, Schema> writerSchemas = new ConcurrentHashMap<>();
+    private volatile int registeredSchemaId = -1;
+
+    public InsuranceEventWireFormat(SchemaRegistryClient schemaRegistryClient, JsonFactory jsonFactory, String topic) {
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.jsonFactory = jsonFactory;
+        // KafkaAvroSerializer 기본 subject 전략(TopicNameStrategy)과 동일
+        this.subject = topic + "-value";
+    }
+
+    /**
+     * 미리 인코딩된 바이트가 InsuranceEvent 스키마로 기록된 wire format인지 확인합니다.
+     * Avro 본문은 객체를 만들지 않고 writer 스키마를 따라 건너뛰기만 하며(skip pass), 본문 뒤에 남는 바이트가 없어야 합니다.
+     * 헤더만 맞고 본문이 잘리거나 깨진 레코드가 토픽에 들어가면 Streams 토폴로지와 컨슈머가 그 레코드에서 멈추므로 여기서 거절합니다.
+     */
+    public void validate(byte[] payload) throws IOException {
+        if (payload == null || payload.length <= HEADER_SIZE || payload[0] != MAGIC_BYTE) {
+            throw new IllegalArgumentException("Payload is not in Confluent Avro wire format");
+        }
+        int schemaId = ByteBuffer.wrap(payload, 1, 4).getInt();
+        Schema writerSchema = writerSchemas.get(schemaId);
+        if (writerSchema == null) {
+            writerSchema = lookupWriterSchema(schemaId);
+            writerSchemas.put(schemaId, writerSchema);
+        }
+
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(payload, HEADER_SIZE, payload.length - HEADER_SIZE, null);
+        try {
+            skip(writerSchema, decoder, payload.length);
+            if (!decoder.isEnd()) {
+                throw new IllegalArgumentException("Unexpected bytes after Avro record body");
+            }
+        } catch (IOException | IndexOutOfBoundsException | UnsupportedOperationException e) {
+            // 바이트 배열에서 읽으므로 IOException 은 잘린 본문(EOF)이나 잘못된 varint, 나머지는 범위를 벗어난 인덱스/항목 수입니다.
+            throw new IllegalArgumentException("Malformed Avro record body for schema id " + schemaId + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Schema lookupWriterSchema(int schemaId) throws IOException {
+        try {
+            Schema writerSchema = ((AvroSchema) schemaRegistryClient.getSchemaById(schemaId)).rawSchema();
+            if (!SCHEMA.getFullName().equals(writerSchema.getFullName())) {
+                throw new IllegalArgumentException("Schema id " + schemaId + " is " + writerSchema.getFullName()
+                        + ", expected " + SCHEMA.getFullName());
+            }
+            return writerSchema;
+        } catch (RestClientException e) {
+            throw new IllegalArgumentException("Unknown schema id " + schemaId, e);
+        }
+    }
+
+    /**
+     * writer 스키마를 따라 값 하나를 읽고 버립니다. KafkaAvroDeserializer가 거절할 값(음수 길이, 범위를 벗어난 union/enum 인덱스)은
+     * 여기서도 거절합니다. 배열/맵 항목 수는 페이로드 길이를 넘을 수 없도록 제한하여 크기 0인 항목으로 오래 도는 것을 막습니다.
+     */
+    private static void skip(Schema schema, BinaryDecoder decoder, int maxItems) throws IOException {
+        switch (schema.getType()) {
+            case RECORD -> {
+                for (Schema.Field field : schema.getFields()) {
+                    skip(field.schema(), decoder, maxItems);
+                }
+            }
+            case UNION -> skip(schema.getTypes().get(decoder.readIndex()), decoder, maxItems);
+            case ENUM -> {
+                int index = decoder.readEnum();
+                if (index < 0 || index >= schema.getEnumSymbols().size()) {
+                    throw new IllegalArgumentException("Enum index " + index + " out of range for " + schema.getFullName());
+                }
+            }
+            case NULL -> decoder.readNull();
+            case BOOLEAN -> decoder.readBoolean();
+            case INT -> decoder.readInt();
+            case LONG -> decoder.readLong();
+            case FLOAT -> decoder.readFloat();
+            case DOUBLE -> decoder.readDouble();
+            case STRING, BYTES -> skipLengthPrefixed(decoder);
+            case FIXED -> decoder.skipFixed(schema.getFixedSize());
+            case ARRAY -> {
+                long items = 0;
+                for (long count = decoder.readArrayStart(); count != 0; count = decoder.arrayNext()) {
+                    items += count;
+                    checkItemCount(count, items, maxItems);
+                    for (long i = 0; i < count; i++) {
+                        skip(schema.getElementType(), decoder, maxItems);
+                    }
+                }
+            }
+            case MAP -> {
+                long items = 0;
+                for (long count = decoder.readMapStart(); count != 0; count = decoder.mapNext()) {
+                    items += count;
+                    checkItemCount(count, items, maxItems);
+                    for (long i = 0; i < count; i++) {
+                        skipLengthPrefixed(decoder);
+                        skip(schema.getValueType(), decoder, maxItems);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void skipLengthPrefixed(BinaryDecoder decoder) throws IOException {
+        int length = decoder.readInt();
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length " + length);
+        }
+        decoder.skipFixed(length);
+    }
+
+    private static void checkItemCount(long count, long items, int maxItems) {
+        if (count < 0 || items > maxItems) {
+            throw new IllegalArgumentException("Invalid array/map block count " + count);
+        }
+    }
+
+    /**
+     * InsuranceEvent JSON을 한 번 훑으면서 필드 타입을 검증하고 Avro wire format 바이트로 인코딩합니다.
+     * 필드 순서와 상관없이 받을 수 있도록 필드 값(문자열/숫자)만 스키마 순서 배열에 잠시 담아둡니다.
+     * 객체 하나만 받으며, 닫는 중괄호 뒤에 공백 외의 내용이 있으면 거절합니다.
+     */
+    public EncodedEvent encodeJson(InputStream json) throws IOException {
+        List<Schema.Field> fields = SCHEMA.getFields();
+        Object[] values = new Object[fields.size()];
+        boolean[] present = new boolean[fields.size()];
+
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("InsuranceEvent JSON must be an object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Schema.Field field = SCHEMA.getField(parser.getCurrentName());
+                JsonToken token = parser.nextToken();
+                if (field == null) {
+                    // 알 수 없는 필드는 무시합니다. (Spring 기본 Jackson 설정과 동일)
+                    parser.skipChildren();
+                    continue;
+                }
+                values[field.pos()] = readValue(parser, token, field);
+                present[field.pos()] = true;
+            }
+            // 닫는 중괄호 뒤에 다른 값이 이어지면 ObjectMapper 바인딩(FAIL_ON_TRAILING_TOKENS)과 달리 조용히 잘리므로 직접 거절합니다.
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Unexpected content after InsuranceEvent JSON object");
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(MAGIC_BYTE);
+        out.write(ByteBuffer.allocate(4).putInt(registeredSchemaId()).array());
+        BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        for (Schema.Field field : fields) {
+            Object value = present[field.pos()] ? values[field.pos()] : defaultValue(field);
+            write(encoder, field.schema(), value, field.name());
+        }
+        encoder.flush();
+
+        Object policyNumber = values[SCHEMA.getField("policyNumber").pos()];
+        return new EncodedEvent(out.toByteArray(), (String) policyNumber);
+    }
+
+    private Object readValue(JsonParser parser, JsonToken token, Schema.Field field) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        Schema.Type type = nonNullType(field.schema()).getType();
+        if (type == Schema.Type.STRING && token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (type == Schema.Type.LONG && token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        throw new IllegalArgumentException("Field '" + field.name() + "' must be " + type + " but was " + token);
+    }
+
+    private Object defaultValue(Schema.Field field) {
+        if (!field.hasDefaultValue()) {
+            throw new IllegalArgumentException("Missing required field '" + field.name() + "'");
+        }
+        Object defaultValue = field.defaultVal();
+        return defaultValue == Schema.Field.NULL_DEFAULT_VALUE ? null : defaultValue;
+    }
+
+    private void write(BinaryEncoder encoder, Schema schema, Object value, String fieldName) throws IOException {
+        if (schema.getType() == Schema.Type.UNION) {
+            List<Schema> branches = schema.getTypes();
+            for (int i = 0; i < branches.size(); i++) {
+                boolean isNullBranch = branches.get(i).getType() == Schema.Type.NULL;
+                if ((value == null) == isNullBranch) {
+                    encoder.writeIndex(i);
+                    write(encoder, branches.get(i), value, fieldName);
+                    return;
+                }
+            }
+            throw new IllegalArgumentException("No union branch for field '" + fieldName + "'");
+        }
+        switch (schema.getType()) {
+            case NULL -> encoder.writeNull();
+            case STRING -> {
+                if (value == null) {
+                    throw new IllegalArgumentException("Field '" + fieldName + "' must not be null");
+                }
+                encoder.writeString((String) value);
+            }
+            case LONG -> {
+                if (value == null) {
+                    throw new IllegalArgumentException("Field '" + fieldName + "' must not be null");
+                }
+                encoder.writeLong(((Number) value).longValue());
+            }
+            default -> throw new IllegalStateException("Unsupported schema type " + schema.getType() + " for field '" + fieldName + "'");
+        }
+    }
+
+    private static Schema nonNullType(Schema schema) {
+        if (schema.getType() != Schema.Type.UNION) {
+            return schema;
+        }
+        return schema.getTypes().stream()
+                .filter(branch -> branch.getType() != Schema.Type.NULL)
+                .findFirst()
+                .orElse(schema);
+    }
+
+    /**
+     * InsuranceEvent 스키마를 subject에 등록(이미 있으면 기존 ID 조회)하고 ID를 캐시합니다.
+     * KafkaAvroSerializer의 auto.register.schemas=true 동작과 같습니다.
+     */
+    private int registeredSchemaId() throws IOException {
+        int schemaId = registeredSchemaId;
+        if (schemaId < 0) {
+            try {
+                schemaId = schemaRegistryClient.register(subject, new AvroSchema(SCHEMA));
+            } catch (RestClientException e) {
+                throw new IOException("Failed to register schema for subject " + subject, e);
+            }
+            writerSchemas.put(schemaId, SCHEMA);
+            registeredSchemaId = schemaId;
+        }
+        return schemaId;
+    }
+
+    /**
+     * 인코딩된 wire format 바이트와 로그/메트릭에 쓸 policyNumber입니다.
+     */
+    public record EncodedEvent(byte[] payload, String policyNumber) {
+    }
+}
@@ -1,19 +1,29 @@
 package com.example.insurance_project.kafka;
 
 import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import com.example.insurance_project.logging.LogMarkers;
+import com.example.insurance_project.logging.PayloadLoggingSwitch;
 import io.confluent.kafka.streams.serdes.avro.SpecificAvroSerde;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.GlobalKTable;
+import org.apache.kafka.streams.kstream.Grouped;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
 import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.state.KeyValueStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafkaStreams;
 import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.TopicBuilder;
 
 import java.util.Collections;
 import java.util.Map;
@@ -26,24 +36,46 @@ public class InsuranceStreamProcessor {
     @Autowired
     private KafkaStreamsConfiguration kafkaStreamsConfiguration;
 
+    @Autowired
+    private PayloadLoggingSwitch payloadLoggingSwitch;
+
+    // 원본 이벤트 토픽 (append-only)
+    public static final String TOPIC_CONTRACT_EVENTS = "contract-events";
+    // policyNumber별 최신 InsuranceEvent만 유지하는 log-compacted 토픽
+    public static final String TOPIC_POLICY_STATE = "policy-state";
+    // policy-state 토픽을 적재하는 GlobalKTable의 상태 저장소 이름 (Interactive Query 용)
+    public static final String POLICY_STATE_STORE = "policy-state-global-store";
+    // policyNumber별 최신 이벤트를 계산하는 집계 저장소 이름
+    private static final String POLICY_LATEST_STORE = "policy-latest-store";
+
     @Bean
     public KStream<String, String> kStream(StreamsBuilder streamsBuilder) {
         // 1. Avro Serde (Serializer/Deserializer) 설정
-        // 스키마 레지스트리 URL을 스트림 처리기에도 알려주어야 합니다.
-        final Map<String, String> serdeConfig = Collections.singletonMap(
-                "schema.registry.url",
-                (String) kafkaStreamsConfiguration.asProperties().get("schema.registry.url")
-        );
-
-        final Serde<InsuranceEvent> insuranceEventSerde = new SpecificAvroSerde<>();
-        insuranceEventSerde.configure(serdeConfig, false);
+        final Serde<InsuranceEvent> insuranceEventSerde = insuranceEventSerde();
 
         // 2. 입력 스트림 생성
         // 'contract-events' 토픽에서 메시지를 읽어옵니다.
         KStream<String, InsuranceEvent> sourceStream = streamsBuilder
-                .stream("contract-events", Consumed.with(Serdes.String(), insuranceEventSerde));
+                .stream(TOPIC_CONTRACT_EVENTS, Consumed.with(Serdes.String(), insuranceEventSerde));
+
+        // 3. 최신 상태 토픽 갱신
+        // /kafka/{key}/insurance-event 처럼 policyNumber가 아닌 키로 들어오는 이벤트도 있으므로
+        // policyNumber로 키를 다시 잡은 뒤, eventTimestamp가 가장 최근인 이벤트만 남겨 policy-state 토픽으로 보냅니다.
+        // policy-state는 cleanup.policy=compact 이므로 키(policyNumber)당 마지막 레코드만 보존됩니다.
+        sourceStream
+                .filter((key, event) -> event != null && event.getPolicyNumber() != null)
+                .selectKey((key, event) -> event.getPolicyNumber())
+                .groupByKey(Grouped.with(Serdes.String(), insuranceEventSerde))
+                .reduce(
+                        (current, next) -> next.getEventTimestamp() >= current.getEventTimestamp() ? next : current,
+                        Materialized.<String, InsuranceEvent, KeyValueStore<Bytes, byte[]>>as(POLICY_LATEST_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(insuranceEventSerde)
+                )
+                .toStream()
+                .to(TOPIC_POLICY_STATE, Produced.with(Serdes.String(), insuranceEventSerde));
 
-        // 3. 데이터 변환 (가공)
+        // 4. 데이터 변환 (가공)
         // InsuranceEvent 객체에서 필요한 정보만 추출하여 간단한 문자열로 변환합니다.
         KStream<String, String> summaryStream = sourceStream.mapValues(
                 event -> {
@@ -53,16 +85,64 @@ public class InsuranceStreamProcessor {
                             event.getAgentId()
                     );
                     log.info("Processing stream event. Key: {}, Summary: {}", event.getPolicyNumber(), summary);
+                    if (payloadLoggingSwitch.isEnabled(event.getPolicyNumber())) {
+                        log.info(LogMarkers.PAYLOAD, "Processing stream event payload. Key: {}, Event: {}", event.getPolicyNumber(), event);
+                    }
                     return summary;
                 }
         );
 
-        // 4. 출력 스트림으로 전송
+        // 5. 출력 스트림으로 전송
         // 변환된 문자열 메시지를 'policy-summary-events' 토픽으로 보냅니다.
         summaryStream.to("policy-summary-events", Produced.with(Serdes.String(), Serdes.String()));
 
-        log.info("Kafka Streams processor initialized. Reading from 'contract-events' and writing to 'policy-summary-events'.");
+        log.info("Kafka Streams processor initialized. Reading from 'contract-events' and writing to 'policy-summary-events', 'policy-state'.");
 
         return summaryStream;
     }
+
+    /**
+     * policy-state 토픽을 KafkaAdmin이 기동 시 compact 설정으로 생성하도록 등록합니다.
+     * Streams 컨슈머는 토픽을 자동 생성하지 않으므로, 토픽이 없으면 GlobalKTable 초기화가 실패해 토폴로지 전체가 시작되지 않습니다.
+     * (Strimzi 환경은 kubernetes/kafka-topics.yaml 의 KafkaTopic 과 같은 설정이며, 이미 있으면 건너뜁니다.)
+     */
+    @Bean
+    public NewTopic policyStateTopic() {
+        return TopicBuilder.name(TOPIC_POLICY_STATE)
+                .partitions(3)
+                .compact()
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                .config(TopicConfig.SEGMENT_MS_CONFIG, "3600000")
+                .build();
+    }
+
+    /**
+     * policy-state 토픽을 GlobalKTable로 적재합니다.
+     * 모든 인스턴스가 전체 파티션을 로컬 저장소에 보유하므로, 이력을 재생하지 않고도 policyNumber로 현재 상태를 조회할 수 있습니다.
+     * 토픽이 compact 되어 있어 부트스트랩 시간은 보존 기간이 아닌 계약 수에 비례합니다.
+     */
+    @Bean
+    public GlobalKTable<String, InsuranceEvent> policyStateTable(StreamsBuilder streamsBuilder) {
+        final Serde<InsuranceEvent> insuranceEventSerde = insuranceEventSerde();
+
+        return streamsBuilder.globalTable(
+                TOPIC_POLICY_STATE,
+                Consumed.with(Serdes.String(), insuranceEventSerde),
+                Materialized.<String, InsuranceEvent, KeyValueStore<Bytes, byte[]>>as(POLICY_STATE_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(insuranceEventSerde)
+        );
+    }
+
+    private Serde<InsuranceEvent> insuranceEventSerde() {
+        // 스키마 레지스트리 URL을 스트림 처리기에도 알려주어야 합니다.
+        final Map<String, String> serdeConfig = Collections.singletonMap(
+                "schema.registry.url",
+                (String) kafkaStreamsConfiguration.asProperties().get("schema.registry.url")
+        );
+
+        final Serde<InsuranceEvent> insuranceEventSerde = new SpecificAvroSerde<>();
+        insuranceEventSerde.configure(serdeConfig, false);
+        return insuranceEventSerde;
+    }
 }
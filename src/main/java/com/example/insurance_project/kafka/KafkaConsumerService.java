@@ -2,10 +2,16 @@ package com.example.insurance_project.kafka;
 
 
 import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import com.example.insurance_project.logging.LogMarkers;
+import com.example.insurance_project.logging.PayloadLoggingSwitch;
+import com.example.insurance_project.notification.NotificationDispatcher;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
@@ -20,6 +26,15 @@ public class KafkaConsumerService {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaConsumerService.class);
 
+    // 수동 ack를 NotificationDispatcher가 비동기로 호출하는 그룹 (ListenerConcurrencyController가 재시작 전에 배출합니다.)
+    public static final String NOTIFICATION_GROUP = "notification-group-avro";
+
+    // 특정 policyNumber에 대해서만 전체 페이로드를 로그로 남기기 위한 스위치
+    private final PayloadLoggingSwitch payloadLoggingSwitch;
+
+    // 고객별로 이벤트를 묶어 비동기로 알림을 발송하고, 발송이 끝나면 acknowledge 합니다.
+    private final NotificationDispatcher notificationDispatcher;
+
     /**
      * 알림 서비스를 위한 Consumer입니다.
      * contract-events 토픽을 구독하며, groupId는 notification-group입니다.
@@ -49,14 +64,23 @@ public class KafkaConsumerService {
      * 알림 서비스를 위한 Consumer입니다.
      * contract-events 토픽을 구독하며, groupId는 notification-group-avro 입니다.
      * KafkaAvroDeserializer가 메시지를 InsuranceEvent 객체로 자동 변환해줍니다.
+     * 발송은 NotificationDispatcher에 넘기고 바로 반환하며, 오프셋은 발송이 끝난 뒤 acknowledgment로 커밋됩니다.
      * @param event 수신한 Avro InsuranceEvent 객체
      * @param key 수신한 메시지의 키
+     * @param topic 수신한 토픽
+     * @param partition 수신한 파티션 (회수 시 NotificationDispatcher가 이 파티션의 이벤트를 먼저 정리합니다)
+     * @param acknowledgment 발송 완료 후 호출할 수동 ack
      */
-    @KafkaListener(topics = "contract-events", groupId = "notification-group-avro")
-    public void consumeForNotification(InsuranceEvent event, @Header(KafkaHeaders.RECEIVED_KEY) String key) {
-        log.info("[Notification-Consumer] Received Avro InsuranceEvent with key {}: {}", key, event.toString());
-        log.info("-> Sending email to customer {} for contract {}. Agent: {}", event.getCustomerId(), event.getPolicyNumber(), event.getAgentId());
-        // TODO: 실제 이메일 또는 카카오톡 알림 발송 로직 구현
+    @KafkaListener(topics = "contract-events", groupId = NOTIFICATION_GROUP, containerFactory = "notificationKafkaListenerContainerFactory")
+    public void consumeForNotification(InsuranceEvent event, @Header(KafkaHeaders.RECEIVED_KEY) String key,
+                                       @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                       @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                       Acknowledgment acknowledgment) {
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(LogMarkers.MDC_POLICY_NUMBER, event.getPolicyNumber())) {
+            log.info("[Notification-Consumer] Received Avro InsuranceEvent with key {}: eventId={}", key, event.getEventId());
+            logPayload(key, event);
+            notificationDispatcher.submit(event, new TopicPartition(topic, partition), acknowledgment);
+        }
     }
 
     /**
@@ -82,16 +106,20 @@ public class KafkaConsumerService {
      */
     @KafkaListener(topics = "contract-events", groupId = "insurance-group-dlq-test")
     public void consumeForDlqTest(InsuranceEvent event, @Header(KafkaHeaders.RECEIVED_KEY) String key) {
-        log.info("[DLQ-Test-Consumer] Received Avro InsuranceEvent with key {}: {}", key, event.toString());
-        log.info("-> Processing InsuranceEvent for customer {} with policy {}. Agent: {}", event.getCustomerId(), event.getPolicyNumber(), event.getAgentId());
+        // 한 레코드의 로그 줄이 샘플링에서 함께 남거나 함께 버려지도록 policyNumber 를 MDC 에 넣습니다.
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(LogMarkers.MDC_POLICY_NUMBER, event.getPolicyNumber())) {
+            log.info("[DLQ-Test-Consumer] Received Avro InsuranceEvent with key {}: eventId={}", key, event.getEventId());
+            logPayload(key, event);
+            log.info("-> Processing InsuranceEvent for customer {} with policy {}. Agent: {}", event.getCustomerId(), event.getPolicyNumber(), event.getAgentId());
 
-        // DLQ 테스트를 위한 의도적인 예외 발생
-        if (event.getPolicyNumber() != null && event.getPolicyNumber().startsWith("FAIL")) {
-            log.error("!!! Intentionally failing to process policy number: {}", event.getPolicyNumber());
-            throw new RuntimeException("Failed to process policy: " + event.getPolicyNumber());
-        }
+            // DLQ 테스트를 위한 의도적인 예외 발생
+            if (event.getPolicyNumber() != null && event.getPolicyNumber().startsWith("FAIL")) {
+                log.error("!!! Intentionally failing to process policy number: {}", event.getPolicyNumber());
+                throw new RuntimeException("Failed to process policy: " + event.getPolicyNumber());
+            }
 
-        // TODO: 실제 비즈니스 로직 구현
+            // TODO: 실제 비즈니스 로직 구현
+        }
     }
 
     /**
@@ -102,11 +130,22 @@ public class KafkaConsumerService {
      */
     @KafkaListener(topics = "contract-events-dlt", groupId = "insurance-group-dlq-test-dlt-new")
     public void consumeDltEvent(InsuranceEvent event, @Header(KafkaHeaders.RECEIVED_KEY) String key) {
-        log.warn("[DLQ-Consumer] Received failed Avro InsuranceEvent with key {}: {}", key, event.toString());
+        // DLQ는 저빈도 경로이고 조사에 필요하므로 전체 페이로드를 남깁니다.
+        log.warn("[DLQ-Consumer] Received failed Avro InsuranceEvent with key {}: {}", key, event);
         log.warn("-> This message failed after retries and was moved to DLQ. Further investigation needed for policy: {}", event.getPolicyNumber());
         // TODO: DLQ 메시지에 대한 추가 처리 로직 구현 (예: 알림, 로깅, 수동 재처리 시스템 연동)
     }
     // --- DLQ 테스트를 위한 새로운 컨슈머 메서드 추가 끝 ---
 
+    /**
+     * PayloadLoggingSwitch가 켜진 policyNumber에 한해 이벤트 전체 페이로드를 남깁니다.
+     * PAYLOAD Marker가 붙은 로그는 샘플링되지 않습니다.
+     */
+    private void logPayload(String key, InsuranceEvent event) {
+        if (payloadLoggingSwitch.isEnabled(event.getPolicyNumber())) {
+            log.info(LogMarkers.PAYLOAD, "Consumed Avro InsuranceEvent payload with key {}: {}", key, event);
+        }
+    }
+
 
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.example.insurance_project.kafka;
 
 import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import com.example.insurance_project.logging.LogMarkers;
+import com.example.insurance_project.logging.PayloadLoggingSwitch;
 import com.fasterxml.jackson.core.JsonProcessingException; // JsonProcessingException 임포트
 import com.fasterxml.jackson.databind.ObjectMapper; // ObjectMapper 임포트
 import lombok.RequiredArgsConstructor;
@@ -26,16 +28,26 @@ public class KafkaProducerService {
     // 이제 Value 타입은 Avro가 생성한 InsuranceEvent 클래스가 됩니다.
     private final KafkaTemplate<String, InsuranceEvent> insuranceEventKafkaTemplate; // 빈 이름 변경
 
+    // 이미 Avro wire format으로 인코딩된 바이트를 그대로 보내는 KafkaTemplate (ByteArraySerializer)
+    private final KafkaTemplate<String, byte[]> rawInsuranceEventKafkaTemplate;
+
     // ObjectMapper를 사용하여 객체를 JSON 문자열로 변환합니다. (학습용으로 복원)
     private final ObjectMapper objectMapper;
 
+    // 특정 policyNumber에 대해서만 전체 페이로드를 로그로 남기기 위한 스위치
+    private final PayloadLoggingSwitch payloadLoggingSwitch;
+
     /**
      * 범용적인 InsuranceEvent를 Kafka에 전송합니다. (Avro 버전)
      *
      * @param event 전송할 InsuranceEvent 객체
      */
     public void sendInsuranceEvent(InsuranceEvent event) {
-        log.info("Produce Avro InsuranceEvent: {}", event.toString());
+        // 핫패스이므로 식별자만 남깁니다. (logback-spring.xml 의 SamplingTurboFilter로 샘플링됨)
+        log.info("Produce Avro InsuranceEvent: eventId={}, policyNumber={}", event.getEventId(), event.getPolicyNumber());
+        if (payloadLoggingSwitch.isEnabled(event.getPolicyNumber())) {
+            log.info(LogMarkers.PAYLOAD, "Produce Avro InsuranceEvent payload: {}", event);
+        }
         // policyNumber를 메시지 키로 사용합니다.
         // KafkaAvroSerializer가 event 객체를 Avro 포맷으로 직렬화합니다.
         this.insuranceEventKafkaTemplate.send(TOPIC_CONTRACT_EVENTS, event.getPolicyNumber().toString(), event);
@@ -63,11 +75,27 @@ public class KafkaProducerService {
      * @param event 전송할 InsuranceEvent 객체
      */
     public void sendInsuranceEventWithKey(String key, InsuranceEvent event) {
-        log.info("Produce Avro InsuranceEvent with key: {} - {}", key, event.toString());
+        log.info("Produce Avro InsuranceEvent with key: {} - eventId={}, policyNumber={}", key, event.getEventId(), event.getPolicyNumber());
+        if (payloadLoggingSwitch.isEnabled(event.getPolicyNumber())) {
+            log.info(LogMarkers.PAYLOAD, "Produce Avro InsuranceEvent payload with key: {} - {}", key, event);
+        }
         this.insuranceEventKafkaTemplate.send(TOPIC_CONTRACT_EVENTS, key, event);
     }
 
 
+    /**
+     * Confluent Avro wire format으로 인코딩된 InsuranceEvent 바이트를 역직렬화 없이 그대로 전송합니다.
+     * 컨슈머 입장에서는 KafkaAvroSerializer로 보낸 메시지와 구분되지 않습니다.
+     *
+     * @param key          메시지 키
+     * @param policyNumber 로그용 policyNumber (미리 인코딩된 바이트처럼 알 수 없으면 null)
+     * @param payload      wire format 바이트 (magic byte + schema id + Avro binary)
+     */
+    public void sendRawInsuranceEvent(String key, String policyNumber, byte[] payload) {
+        log.info("Produce raw Avro InsuranceEvent with key: {} - policyNumber={}, bytes={}", key, policyNumber, payload.length);
+        this.rawInsuranceEventKafkaTemplate.send(TOPIC_CONTRACT_EVENTS, key, payload);
+    }
+
     /**
      * 메시지 키를 포함하여 InsuranceEvent를 Kafka에 전송합니다. (JSON 버전 - 학습용 주석 처리)
      * @param key 메시지 키
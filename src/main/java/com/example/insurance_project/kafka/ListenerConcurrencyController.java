@@ -0,0 +1,349 @@
+package com.example.insurance_project.kafka;
+
+import com.example.insurance_project.notification.NotificationDispatcher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 컨슈머 그룹별 lag와 처리 속도를 주기적으로 확인하여 @KafkaListener 컨테이너의 concurrency를 조정합니다.
+ * <ul>
+ *     <li>예상 소진 시간(lag / 처리 속도)이 target-drain-seconds 를 넘으면 파티션 수까지 concurrency를 늘립니다.</li>
+ *     <li>lag가 scale-down-lag 이하로 scale-down-samples 회 연속 유지되면 concurrency를 하나씩 줄입니다.</li>
+ *     <li>concurrency 변경은 컨테이너 재시작(리밸런스)을 동반하므로 그룹마다 cooldown-ms 동안 다시 변경하지 않습니다.</li>
+ * </ul>
+ * 커밋된 오프셋이 없는 파티션은 auto-offset-reset=earliest 에 따라 파티션 시작 오프셋부터 읽으므로 시작 오프셋을 기준으로 lag를 계산합니다.
+ * <p>
+ * 그룹별 lag / 예상 소진 시간 / concurrency는 Micrometer 게이지로 노출됩니다.
+ * 파드 수는 HorizontalPodAutoscaler가 이 예상 소진 시간(insurance.kafka.consumer.drain.seconds, Pods 메트릭)으로 조정하며,
+ * 파드가 여러 개이면 이 컨트롤러는 concurrency를 파드당 공정 몫(파티션 수 / 파드 수) 이내로 유지합니다.
+ * <p>
+ * notification-group-avro 는 NotificationDispatcher가 발송 후 비동기로 ack 하므로, 재시작 전에 fetch를 멈추고(pause)
+ * 받은 이벤트를 모두 발송/ack 한 뒤에 컨테이너를 멈춥니다. 제한 시간 안에 배출하지 못하면 재개(resume)하고 이번 주기는 건너뜁니다.
+ * <p>
+ * 종료 시에는 GracefulShutdownCoordinator가 리스너를 pause/배출하기 전에 {@link #suspend(long)} 를 호출합니다.
+ * 이후의 주기는 컨테이너를 재시작하거나 재개하지 않으므로, 코디네이터가 멈춘 컨테이너가 다시 fetch 하지 않습니다.
+ */
+@Component
+public class ListenerConcurrencyController {
+
+    private static final Logger log = LoggerFactory.getLogger(ListenerConcurrencyController.class);
+
+    private static final long ADMIN_TIMEOUT_SECONDS = 5;
+    // 처리 속도가 0일 때(무한대) 게이지로 내보낼 예상 소진 시간 상한. HPA/Prometheus 가 +Inf 를 다루지 못하므로 제한합니다.
+    private static final double MAX_REPORTED_DRAIN_SECONDS = 3600;
+
+    private final KafkaListenerEndpointRegistry listenerEndpointRegistry;
+    private final MeterRegistry meterRegistry;
+    private final AdminClient adminClient;
+    private final NotificationDispatcher notificationDispatcher;
+
+    private final Map<String, GroupState> groupStates = new ConcurrentHashMap<>();
+    // 조정 주기와 suspend() 를 직렬화합니다. 주기 하나가 끝날 때까지 잡고 있습니다.
+    private final ReentrantLock adjustLock = new ReentrantLock();
+    private volatile boolean suspended;
+
+    @Value("${insurance.kafka.autoscaling.enabled:true}")
+    private boolean enabled;
+
+    @Value("${insurance.kafka.autoscaling.min-concurrency:1}")
+    private int minConcurrency;
+
+    @Value("${insurance.kafka.autoscaling.target-drain-seconds:30}")
+    private long targetDrainSeconds;
+
+    @Value("${insurance.kafka.autoscaling.scale-down-lag:10}")
+    private long scaleDownLag;
+
+    @Value("${insurance.kafka.autoscaling.scale-down-samples:6}")
+    private int scaleDownSamples;
+
+    @Value("${insurance.kafka.autoscaling.cooldown-ms:60000}")
+    private long cooldownMs;
+
+    @Value("${insurance.kafka.autoscaling.drain-timeout-ms:10000}")
+    private long drainTimeoutMs;
+
+    public ListenerConcurrencyController(KafkaListenerEndpointRegistry listenerEndpointRegistry,
+                                         MeterRegistry meterRegistry,
+                                         KafkaAdmin kafkaAdmin,
+                                         NotificationDispatcher notificationDispatcher) {
+        this.listenerEndpointRegistry = listenerEndpointRegistry;
+        this.meterRegistry = meterRegistry;
+        this.adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        this.notificationDispatcher = notificationDispatcher;
+    }
+
+    @Scheduled(fixedDelayString = "${insurance.kafka.autoscaling.interval-ms:10000}")
+    public void adjustConcurrency() {
+        adjustLock.lock();
+        try {
+            for (MessageListenerContainer container : listenerEndpointRegistry.getListenerContainers()) {
+                if (suspended) {
+                    return;
+                }
+                if (!(container instanceof ConcurrentMessageListenerContainer<?, ?> concurrentContainer)
+                        || !container.isRunning() || container.getGroupId() == null) {
+                    continue;
+                }
+                try {
+                    evaluate(concurrentContainer);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    // 브로커 일시 장애 등으로 측정에 실패하면 이번 주기는 건너뜁니다.
+                    log.warn("Failed to evaluate consumer lag for group {}: {}", container.getGroupId(), e.getMessage());
+                }
+            }
+        } finally {
+            adjustLock.unlock();
+        }
+    }
+
+    /**
+     * 이후의 조정 주기를 모두 건너뛰도록 하고, 진행 중인 주기가 끝나기를 최대 timeoutMs 동안 기다립니다. 되돌리지 않습니다.
+     * @return 진행 중인 주기가 없거나 시간 안에 끝났으면 true
+     */
+    public boolean suspend(long timeoutMs) throws InterruptedException {
+        suspended = true;
+        if (!adjustLock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        adjustLock.unlock();
+        return true;
+    }
+
+    private void evaluate(ConcurrentMessageListenerContainer<?, ?> container) throws Exception {
+        String groupId = container.getGroupId();
+        String[] topics = container.getContainerProperties().getTopics();
+        if (topics == null || topics.length == 0) {
+            return;
+        }
+
+        GroupState state = groupStates.computeIfAbsent(groupId, this::registerGroup);
+        long now = System.currentTimeMillis();
+
+        // 1. lag 및 처리 속도 측정
+        Map<TopicPartition, Long> endOffsets = endOffsets(topics);
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Map<TopicPartition, Long> beginningOffsets = beginningOffsets(endOffsets.keySet().stream()
+                .filter(tp -> committed.get(tp) == null)
+                .toList());
+
+        long lag = 0;
+        long committedTotal = 0;
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            OffsetAndMetadata offset = committed.get(end.getKey());
+            // 커밋이 없으면 0이 아닌 시작 오프셋부터 읽습니다. (보존 기간이 지나 지워진 레코드를 lag로 세지 않습니다.)
+            long position = offset == null ? beginningOffsets.get(end.getKey()) : offset.offset();
+            lag += Math.max(0, end.getValue() - position);
+            committedTotal += position;
+        }
+
+        int currentConcurrency = container.getConcurrency();
+        int partitionCount = endOffsets.size();
+        long previousCommitted = state.committedTotal.getAndSet(committedTotal);
+        long previousSampleAt = state.sampledAt.getAndSet(now);
+
+        state.lag.set(lag);
+        state.concurrency.set(currentConcurrency);
+        if (previousSampleAt == 0) {
+            // 첫 측정은 처리 속도를 계산할 기준점만 저장합니다.
+            return;
+        }
+
+        double elapsedSeconds = Math.max(1, now - previousSampleAt) / 1000.0;
+        long processed = Math.max(0, committedTotal - previousCommitted);
+        double recordsPerSecond = processed / elapsedSeconds;
+        // 컨슈머 스레드 하나가 레코드 하나를 처리하는 데 걸린 평균 시간
+        state.processingSeconds = processed == 0 ? 0 : elapsedSeconds * currentConcurrency / processed;
+        state.drainSeconds = lag == 0 ? 0 : (recordsPerSecond > 0 ? lag / recordsPerSecond : Double.POSITIVE_INFINITY);
+
+        // 2. 목표 concurrency 계산
+        int desired = currentConcurrency;
+        if (lag > scaleDownLag && state.drainSeconds > targetDrainSeconds) {
+            state.idleSamples.set(0);
+            double ratio = Double.isInfinite(state.drainSeconds) ? 2.0 : state.drainSeconds / targetDrainSeconds;
+            desired = (int) Math.ceil(currentConcurrency * ratio);
+        } else if (lag <= scaleDownLag) {
+            if (state.idleSamples.incrementAndGet() >= scaleDownSamples) {
+                desired = currentConcurrency - 1;
+            }
+        } else {
+            state.idleSamples.set(0);
+        }
+        desired = Math.max(minConcurrency, Math.min(desired, partitionCount));
+
+        // HPA로 파드가 여러 개이면 이 파드의 concurrency는 공정 몫(파티션 수 / 파드 수, 올림)을 넘지 않습니다.
+        // 파드마다 파티션 수만큼 늘리면 대부분 유휴 멤버가 되고, 변경할 때마다 모든 파드가 참여한 그룹이 리밸런스됩니다.
+        long podCount = groupPodCount(groupId);
+        if (podCount > 1) {
+            int fairShare = Math.max(minConcurrency, (int) Math.ceil((double) partitionCount / podCount));
+            desired = Math.min(desired, fairShare);
+        }
+
+        // 3. 컨테이너 재시작으로 concurrency 적용
+        if (!enabled || desired == currentConcurrency || now - state.lastChangedAt < cooldownMs) {
+            return;
+        }
+        log.info("Scaling listener concurrency for group {}: {} -> {} (lag={}, rate={}/s, drain={}s, partitions={}, pods={})",
+                groupId, currentConcurrency, desired, lag, String.format("%.1f", recordsPerSecond),
+                String.format("%.1f", state.drainSeconds), partitionCount, podCount);
+        if (KafkaConsumerService.NOTIFICATION_GROUP.equals(groupId) && !drainNotifications(container)) {
+            log.warn("Could not drain notification dispatcher within {} ms. Skipping concurrency change for group {}.",
+                    drainTimeoutMs, groupId);
+            return;
+        }
+        if (suspended) {
+            // 배출을 기다리는 동안 종료가 시작되었습니다. 컨테이너는 GracefulShutdownCoordinator가 멈춥니다.
+            return;
+        }
+        container.stop();
+        container.setConcurrency(desired);
+        container.start();
+        if (container.isPauseRequested()) {
+            // 새로 만든 자식 컨테이너도 pause 상태를 이어받으므로 재개합니다.
+            container.resume();
+        }
+
+        state.concurrency.set(desired);
+        state.idleSamples.set(0);
+        state.lastChangedAt = now;
+    }
+
+    /**
+     * 알림 컨테이너의 fetch를 멈추고 NotificationDispatcher에 넘긴 이벤트가 모두 ack 될 때까지 기다립니다.
+     * 비동기 ack가 남은 채로 stop() 하면 그 레코드의 오프셋이 커밋되지 않아 재시작 후 중복 발송됩니다.
+     * @return 배출을 마쳤으면 true (실패하면 컨테이너를 다시 재개합니다)
+     */
+    private boolean drainNotifications(ConcurrentMessageListenerContainer<?, ?> container) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+        container.pause();
+        // pause는 다음 poll 루프에서 적용되므로, 그 사이 넘겨진 레코드까지 포함해 배출하도록 실제로 멈출 때까지 기다립니다.
+        while (!container.isContainerPaused()) {
+            if (System.nanoTime() >= deadline) {
+                resumeUnlessSuspended(container);
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        long remainingMs = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        if (!notificationDispatcher.drain(remainingMs)) {
+            resumeUnlessSuspended(container);
+            return false;
+        }
+        return true;
+    }
+
+    // 종료 중이면 GracefulShutdownCoordinator가 건 pause 를 풀지 않습니다.
+    private void resumeUnlessSuspended(MessageListenerContainer container) {
+        if (!suspended) {
+            container.resume();
+        }
+    }
+
+    /**
+     * 그룹 멤버의 호스트(파드 IP) 수로 그룹에 참여 중인 파드 수를 구합니다.
+     */
+    private long groupPodCount(String groupId) throws Exception {
+        ConsumerGroupDescription description = adminClient.describeConsumerGroups(List.of(groupId))
+                .describedGroups().get(groupId).get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return description.members().stream()
+                .map(MemberDescription::host)
+                .distinct()
+                .count();
+    }
+
+    private Map<TopicPartition, Long> endOffsets(String[] topics) throws Exception {
+        Map<String, TopicDescription> descriptions = adminClient.describeTopics(Arrays.asList(topics))
+                .allTopicNames().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return listOffsets(descriptions.values().stream()
+                .flatMap(description -> description.partitions().stream()
+                        .map(partition -> new TopicPartition(description.name(), partition.partition())))
+                .toList(), OffsetSpec.latest());
+    }
+
+    private Map<TopicPartition, Long> beginningOffsets(List<TopicPartition> partitions) throws Exception {
+        if (partitions.isEmpty()) {
+            return Map.of();
+        }
+        return listOffsets(partitions, OffsetSpec.earliest());
+    }
+
+    private Map<TopicPartition, Long> listOffsets(List<TopicPartition> partitions, OffsetSpec spec) throws Exception {
+        Map<TopicPartition, OffsetSpec> request = partitions.stream()
+                .collect(Collectors.toMap(tp -> tp, tp -> spec));
+        return adminClient.listOffsets(request).all().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().offset()));
+    }
+
+    private GroupState registerGroup(String groupId) {
+        GroupState state = new GroupState();
+        Gauge.builder("insurance.kafka.consumer.lag", state, s -> s.lag.get())
+                .description("Total consumer lag of the group across all assigned topics")
+                .tag("group", groupId)
+                .register(meterRegistry);
+        // HorizontalPodAutoscaler 의 스케일 기준입니다. (kubernetes/insurance-app-hpa.yaml)
+        Gauge.builder("insurance.kafka.consumer.drain.seconds", state, s -> Math.min(s.drainSeconds, MAX_REPORTED_DRAIN_SECONDS))
+                .description("Estimated seconds to drain the current lag at the observed processing rate")
+                .tag("group", groupId)
+                .register(meterRegistry);
+        Gauge.builder("insurance.kafka.consumer.processing.seconds", state, s -> s.processingSeconds)
+                .description("Average processing time per record per consumer thread")
+                .tag("group", groupId)
+                .register(meterRegistry);
+        Gauge.builder("insurance.kafka.listener.concurrency", state, s -> s.concurrency.get())
+                .description("Current listener container concurrency")
+                .tag("group", groupId)
+                .register(meterRegistry);
+        return state;
+    }
+
+    @PreDestroy
+    public void close() {
+        adminClient.close();
+    }
+
+    /**
+     * 그룹별 측정값. 게이지가 읽을 수 있도록 Atomic / volatile 필드로 유지합니다.
+     */
+    private static class GroupState {
+        private final AtomicLong lag = new AtomicLong();
+        private final AtomicLong committedTotal = new AtomicLong();
+        private final AtomicLong sampledAt = new AtomicLong();
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger idleSamples = new AtomicInteger();
+        private volatile double processingSeconds;
+        private volatile double drainSeconds;
+        private volatile long lastChangedAt;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.insurance_project.kafka;
+
+import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * policy-state GlobalKTable 로컬 저장소를 조회하여 policyNumber별 최신 InsuranceEvent를 반환하는 서비스입니다.
+ * contract-events 이력을 재생하지 않고도 현재 계약 상태를 확인할 수 있습니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class PolicyStateQueryService {
+
+    private static final Logger log = LoggerFactory.getLogger(PolicyStateQueryService.class);
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+
+    /**
+     * policyNumber에 해당하는 최신 InsuranceEvent를 조회합니다.
+     * @param policyNumber 조회할 보험 증권 번호
+     * @return 최신 이벤트, 해당 policyNumber 데이터가 없으면 Optional.empty()
+     * @throws PolicyStateUnavailableException 스트림이 아직 RUNNING 상태가 아니거나 저장소를 조회할 수 없는 경우
+     */
+    public Optional<InsuranceEvent> findLatest(String policyNumber) {
+        KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+        KafkaStreams.State state = kafkaStreams == null ? null : kafkaStreams.state();
+        if (state != KafkaStreams.State.RUNNING) {
+            log.debug("Kafka Streams is not running yet (state={}), policy state for {} is unavailable.", state, policyNumber);
+            throw new PolicyStateUnavailableException("Kafka Streams is not running (state=" + state + ")");
+        }
+
+        try {
+            ReadOnlyKeyValueStore<String, InsuranceEvent> store = kafkaStreams.store(
+                    StoreQueryParameters.fromNameAndType(
+                            InsuranceStreamProcessor.POLICY_STATE_STORE,
+                            QueryableStoreTypes.<String, InsuranceEvent>keyValueStore()
+                    )
+            );
+            return Optional.ofNullable(store.get(policyNumber));
+        } catch (InvalidStateStoreException e) {
+            // RUNNING 확인 직후 리밸런스/재시작으로 저장소가 잠시 닫힌 경우입니다.
+            log.debug("Policy state store is unavailable for {}: {}", policyNumber, e.getMessage());
+            throw new PolicyStateUnavailableException("Policy state store is unavailable: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 스트림이 기동/리밸런스 중이라 policy-state 저장소를 조회할 수 없을 때 던지는 예외입니다.
+     * 키가 없는 경우(Optional.empty())와 구분하여 호출자가 잠시 후 재시도하도록 안내할 수 있습니다.
+     */
+    public static class PolicyStateUnavailableException extends RuntimeException {
+
+        public PolicyStateUnavailableException(String message) {
+            super(message);
+        }
+
+        public PolicyStateUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.insurance_project.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * 로그 필터링에 사용하는 SLF4J Marker 와 MDC 키 모음입니다.
+ */
+public final class LogMarkers {
+
+    /**
+     * 이벤트 전체 페이로드를 출력하는 로그에 붙이는 Marker입니다.
+     * PayloadLoggingSwitch로 명시적으로 켠 policyNumber에 대해서만 사용되며, SamplingTurboFilter의 샘플링 대상에서 제외됩니다.
+     */
+    public static final Marker PAYLOAD = MarkerFactory.getMarker("PAYLOAD");
+
+    /**
+     * 레코드를 처리하는 동안 MDC 에 넣는 policyNumber 키입니다.
+     * SamplingTurboFilter 는 이 값으로 샘플링하므로 한 레코드의 로그 줄이 함께 남거나 함께 버려집니다. (logback-spring.xml 의 mdcKey)
+     */
+    public static final String MDC_POLICY_NUMBER = "policyNumber";
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.insurance_project.logging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * 페이로드 로그 스위치를 조회/변경하는 Actuator 엔드포인트입니다.
+ * <ul>
+ *     <li>policyNumbers : 현재 켜져 있는 policyNumber 목록</li>
+ *     <li>enable(policyNumber) : 페이로드 로그 켜기</li>
+ *     <li>disable(policyNumber) : 페이로드 로그 끄기</li>
+ * </ul>
+ * 고객 페이로드가 로그에 남으므로 인증 없는 웹(/actuator)에는 노출하지 않고 JMX 전용으로 둡니다.
+ * (org.springframework.boot:type=Endpoint,name=Payloadlogging - kubectl port-forward 후 jconsole 등으로 접근)
+ */
+@Component
+@JmxEndpoint(id = "payloadlogging")
+@RequiredArgsConstructor
+public class PayloadLoggingEndpoint {
+
+    private final PayloadLoggingSwitch payloadLoggingSwitch;
+
+    @ReadOperation
+    public Set<String> policyNumbers() {
+        return payloadLoggingSwitch.getPolicyNumbers();
+    }
+
+    @WriteOperation
+    public Set<String> enable(@Selector String policyNumber) {
+        payloadLoggingSwitch.enable(policyNumber);
+        return payloadLoggingSwitch.getPolicyNumbers();
+    }
+
+    @DeleteOperation
+    public Set<String> disable(@Selector String policyNumber) {
+        payloadLoggingSwitch.disable(policyNumber);
+        return payloadLoggingSwitch.getPolicyNumbers();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.insurance_project.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 디버깅 목적으로 특정 policyNumber에 대해서만 이벤트 전체 페이로드 로그를 켜는 스위치입니다.
+ * 초기값은 logging.payload.policy-numbers 속성으로, 실행 중에는 payloadlogging JMX 엔드포인트로 변경합니다.
+ */
+@Component
+public class PayloadLoggingSwitch {
+
+    private final Set<String> policyNumbers = ConcurrentHashMap.newKeySet();
+
+    public PayloadLoggingSwitch(@Value("${logging.payload.policy-numbers:}") List<String> initialPolicyNumbers) {
+        initialPolicyNumbers.stream()
+                .map(String::trim)
+                .filter(policyNumber -> !policyNumber.isEmpty())
+                .forEach(policyNumbers::add);
+    }
+
+    /**
+     * 해당 policyNumber의 전체 페이로드를 로그로 남겨야 하는지 확인합니다.
+     * 스위치가 비어 있으면 Set 조회 없이 바로 false를 반환합니다.
+     */
+    public boolean isEnabled(String policyNumber) {
+        return policyNumber != null && !policyNumbers.isEmpty() && policyNumbers.contains(policyNumber);
+    }
+
+    public void enable(String policyNumber) {
+        policyNumbers.add(policyNumber);
+    }
+
+    public void disable(String policyNumber) {
+        policyNumbers.remove(policyNumber);
+    }
+
+    public Set<String> getPolicyNumbers() {
+        return Set.copyOf(policyNumbers);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.insurance_project.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 특정 로거의 INFO 이하 로그를 샘플링하고 초당 출력 건수를 제한하는 Logback TurboFilter입니다.
+ * logback-spring.xml 에서 로거마다 하나씩 등록합니다.
+ *
+ * <pre>
+ * &lt;turboFilter class="com.example.insurance_project.logging.SamplingTurboFilter"&gt;
+ *     &lt;loggerName&gt;com.example.insurance_project.kafka.KafkaProducerService&lt;/loggerName&gt;
+ *     &lt;sampleEvery&gt;10&lt;/sampleEvery&gt;
+ *     &lt;maxPerSecond&gt;50&lt;/maxPerSecond&gt;
+ *     &lt;mdcKey&gt;policyNumber&lt;/mdcKey&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ *
+ * 샘플링은 로거 전체가 아닌 레코드/호출 위치 단위로 결정하므로, 레코드마다 찍히는 줄 수와 sampleEvery 가 맞물려
+ * 특정 줄만 계속 남거나 빠지는 일이 없습니다.
+ * <ul>
+ *     <li>MDC 에 mdcKey 값이 있으면 그 값의 해시로 결정합니다. 같은 레코드(policyNumber)의 줄은 로거와 상관없이 함께 남거나 함께 버려집니다.</li>
+ *     <li>없으면 호출 위치(로그 포맷 문자열)마다 따로 센 순번으로 N건 중 1건을 남깁니다.</li>
+ * </ul>
+ *
+ * WARN/ERROR 로그와 {@link LogMarkers#PAYLOAD} Marker가 붙은 로그는 항상 통과합니다.
+ * 모든 상태는 Atomic 변수로만 관리하므로 로그 호출 경로에서 락을 잡지 않습니다.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    // 호출 위치별 순번을 둘 최대 개수. 넘으면 나머지 호출 위치는 순번 하나를 함께 사용합니다.
+    private static final int MAX_CALL_SITES = 1024;
+
+    private String loggerName;
+    // N건 중 1건만 출력 (1 이하이면 샘플링하지 않음)
+    private int sampleEvery = 1;
+    // 1초 동안 출력할 최대 건수 (0 이하이면 제한하지 않음)
+    private int maxPerSecond = 0;
+    // 레코드 단위 샘플링에 사용할 MDC 키 (없으면 호출 위치 단위)
+    private String mdcKey;
+
+    private final ConcurrentMap<String, AtomicLong> callSiteSequences = new ConcurrentHashMap<>();
+    private final AtomicLong overflowSequence = new AtomicLong();
+    private final AtomicLong windowStartNanos = new AtomicLong(System.nanoTime());
+    private final AtomicInteger permitsUsed = new AtomicInteger();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isInfoEnabled() 같은 레벨 확인 호출(format == null)은 건수에 포함하지 않습니다.
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!logger.getName().equals(loggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (marker != null && marker.contains(LogMarkers.PAYLOAD)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (sampleEvery > 1 && !sampled(format)) {
+            return FilterReply.DENY;
+        }
+        if (maxPerSecond > 0 && !tryAcquirePermit()) {
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private boolean sampled(String format) {
+        String key = mdcKey == null ? null : MDC.get(mdcKey);
+        if (key != null) {
+            // 해시 하위 비트가 고르지 않을 수 있어 섞은 뒤 나눕니다.
+            int hash = key.hashCode() * 0x9E3779B9;
+            return Math.floorMod(hash ^ (hash >>> 16), sampleEvery) == 0;
+        }
+        return callSiteSequence(format).getAndIncrement() % sampleEvery == 0;
+    }
+
+    private AtomicLong callSiteSequence(String format) {
+        AtomicLong sequence = callSiteSequences.get(format);
+        if (sequence != null) {
+            return sequence;
+        }
+        if (callSiteSequences.size() >= MAX_CALL_SITES) {
+            return overflowSequence;
+        }
+        return callSiteSequences.computeIfAbsent(format, f -> new AtomicLong());
+    }
+
+    private boolean tryAcquirePermit() {
+        long now = System.nanoTime();
+        long windowStart = windowStartNanos.get();
+        // 1초가 지나면 새 윈도우를 시작합니다. CAS에 성공한 스레드 하나만 카운터를 초기화합니다.
+        if (now - windowStart >= WINDOW_NANOS && windowStartNanos.compareAndSet(windowStart, now)) {
+            permitsUsed.set(0);
+        }
+        return permitsUsed.incrementAndGet() <= maxPerSecond;
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null || loggerName.isBlank()) {
+            addError("loggerName must be set for SamplingTurboFilter");
+            return;
+        }
+        super.start();
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public void setMdcKey(String mdcKey) {
+        this.mdcKey = mdcKey;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.insurance_project.notification;
+
+import com.example.insurance_project.kafka.avro.InsuranceEvent;
+
+import java.util.List;
+
+/**
+ * 묶음 창(window) 동안 모인 한 고객의 이벤트들을 하나의 메시지로 보내기 위한 알림 단위입니다.
+ *
+ * @param customerId 고객 ID
+ * @param channel    발송 채널
+ * @param events     이 알림에 포함된 이벤트 (여러 증권이 하나의 메시지로 묶입니다)
+ */
+public record CustomerNotification(String customerId, NotificationChannel channel, List<InsuranceEvent> events) {
+
+    public List<String> policyNumbers() {
+        return events.stream().map(InsuranceEvent::getPolicyNumber).distinct().toList();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.insurance_project.notification;
+
+/**
+ * 고객 알림 발송 채널입니다.
+ */
+public enum NotificationChannel {
+    EMAIL,
+    KAKAO
+}
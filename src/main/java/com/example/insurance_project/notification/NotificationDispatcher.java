@@ -0,0 +1,361 @@
+package com.example.insurance_project.notification;
+
+import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import com.example.insurance_project.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * notification-group-avro 리스너가 받은 이벤트를 고객 단위로 묶어 비동기로 발송합니다.
+ * <ol>
+ *     <li>고객 ID별로 window-ms 동안 이벤트를 모읍니다. (max-batch-size 에 도달하면 즉시 발송)</li>
+ *     <li>모인 이벤트는 크기가 고정된 발송 스레드 풀에서 채널별로 하나의 메시지로 발송합니다.</li>
+ *     <li>채널마다 토큰 버킷(초당 발송 수)과 세마포어(동시 발송 수)로 외부 발송 서비스의 한도를 지킵니다.</li>
+ *     <li>모든 채널 발송이 끝난 뒤에야 각 레코드를 acknowledge 하므로, 오프셋은 발송 완료 후에만 커밋됩니다.</li>
+ * </ol>
+ * 받은 이벤트는 acknowledge 되거나, 파티션을 잃어 새 소유자에게 재전달되도록 포기(abandon)될 때까지 파티션별로 추적합니다.
+ * 파티션이 회수(revoke)되면 {@link #drainPartitions(Collection, long)} 가 커밋 전에 그 파티션의 이벤트를 발송/ack 합니다. (NotificationRebalanceListener)
+ * <p>
+ * 리스너 스레드는 이벤트를 넘기고 바로 반환하므로 느린 발송이 max.poll.interval.ms 를 넘겨 리밸런스를 일으키지 않으며,
+ * 다른 컨슈머 그룹(DLQ 테스트, Kafka Streams)의 같은 파티션 소비에도 영향을 주지 않습니다.
+ */
+public class NotificationDispatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final Map<NotificationChannel, ChannelGate> channels;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long shutdownTimeoutMs;
+
+    private final Map<String, PendingBatch> pendingBatches = new ConcurrentHashMap<>();
+    // 받았지만 아직 acknowledge 하지도, 포기하지도 않은 이벤트
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+    private final Map<TopicPartition, Set<PendingEvent>> unacknowledged = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService windowScheduler;
+    private final ExecutorService dispatchExecutor;
+
+    private final DistributionSummary batchSize;
+    private final Timer dispatchTimer;
+
+    public NotificationDispatcher(List<NotificationSender> senders,
+                                  Map<NotificationChannel, TokenBucket> rateLimits,
+                                  int maxConcurrencyPerChannel,
+                                  int dispatchThreads,
+                                  long windowMs,
+                                  int maxBatchSize,
+                                  int maxAttempts,
+                                  long retryBackoffMs,
+                                  long shutdownTimeoutMs,
+                                  MeterRegistry meterRegistry) {
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        Map<NotificationChannel, ChannelGate> gates = new EnumMap<>(NotificationChannel.class);
+        for (NotificationSender sender : senders) {
+            gates.put(sender.channel(), new ChannelGate(sender, rateLimits.get(sender.channel()),
+                    new Semaphore(maxConcurrencyPerChannel), meterRegistry));
+        }
+        this.channels = gates;
+
+        this.windowScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "notification-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatchExecutor = Executors.newFixedThreadPool(dispatchThreads, r -> {
+            Thread thread = new Thread(r, "notification-dispatch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("insurance.notification.pending", pendingEvents, AtomicInteger::get)
+                .description("Events received but not yet acknowledged by the notification dispatcher")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("insurance.notification.batch.size")
+                .description("Events merged into one customer notification")
+                .register(meterRegistry);
+        this.dispatchTimer = Timer.builder("insurance.notification.dispatch")
+                .description("Time from batch flush until every channel has been sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 이벤트를 고객별 묶음에 추가합니다. acknowledgment 는 묶음 발송이 끝난 뒤 호출됩니다.
+     * @param partition 이벤트를 받은 파티션 (회수 시 그 파티션의 이벤트만 기다리는 데 사용)
+     */
+    public void submit(InsuranceEvent event, TopicPartition partition, Acknowledgment acknowledgment) {
+        PendingEvent pendingEvent = new PendingEvent(event, partition, acknowledgment);
+        pendingEvents.incrementAndGet();
+        unacknowledged.computeIfAbsent(partition, tp -> ConcurrentHashMap.newKeySet()).add(pendingEvent);
+
+        PendingBatch[] full = new PendingBatch[1];
+        // compute는 키 단위로 원자적이므로 같은 고객의 묶음을 동시에 만들거나 발송 중인 묶음에 추가하지 않습니다.
+        pendingBatches.compute(event.getCustomerId(), (customerId, batch) -> {
+            if (batch == null) {
+                PendingBatch created = new PendingBatch(customerId);
+                windowScheduler.schedule(() -> flush(created), windowMs, TimeUnit.MILLISECONDS);
+                batch = created;
+            }
+            batch.events.add(pendingEvent);
+            if (batch.events.size() >= maxBatchSize) {
+                full[0] = batch;
+                return null;
+            }
+            return batch;
+        });
+        if (full[0] != null) {
+            dispatch(full[0]);
+        }
+    }
+
+    public int getPendingEvents() {
+        return pendingEvents.get();
+    }
+
+    private void flush(PendingBatch batch) {
+        // max-batch-size 로 이미 발송된 묶음이면 remove가 실패하므로 중복 발송되지 않습니다.
+        if (pendingBatches.remove(batch.customerId, batch)) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(PendingBatch batch) {
+        dispatchExecutor.execute(() -> deliver(batch));
+    }
+
+    private void deliver(PendingBatch batch) {
+        long start = System.nanoTime();
+        List<InsuranceEvent> events = batch.events.stream().map(pendingEvent -> pendingEvent.event).toList();
+        batchSize.record(events.size());
+        try {
+            for (ChannelGate gate : channels.values()) {
+                gate.send(new CustomerNotification(batch.customerId, gate.sender.channel(), events));
+            }
+        } catch (InterruptedException e) {
+            // 종료 중 중단된 묶음은 acknowledge 하지 않으므로 재시작 후 다시 수신됩니다.
+            // 처리 완료로 세지 않으므로 drain() 은 이 이벤트들이 남아 있는 한 배출을 마쳤다고 보고하지 않습니다.
+            Thread.currentThread().interrupt();
+            log.warn("Notification dispatch interrupted for customer {}. {} events will be redelivered.", batch.customerId, events.size());
+            return;
+        }
+        batch.events.forEach(pendingEvent -> resolve(pendingEvent, true));
+        dispatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 이벤트를 한 번만 정리합니다. 회수된 파티션에서 이미 포기한 이벤트는 발송이 늦게 끝나도 acknowledge 하지 않습니다.
+     */
+    private void resolve(PendingEvent pendingEvent, boolean acknowledge) {
+        if (!pendingEvent.resolved.compareAndSet(false, true)) {
+            return;
+        }
+        if (acknowledge) {
+            pendingEvent.acknowledgment.acknowledge();
+        }
+        Set<PendingEvent> partitionEvents = unacknowledged.get(pendingEvent.partition);
+        if (partitionEvents != null) {
+            partitionEvents.remove(pendingEvent);
+        }
+        pendingEvents.decrementAndGet();
+    }
+
+    /**
+     * 묶음 창을 기다리지 않고 모아둔 묶음을 모두 발송한 뒤, 받은 이벤트가 모두 acknowledge 될 때까지 최대 timeoutMs 동안 기다립니다.
+     * 리스너 컨테이너를 멈추기 전에 호출하면 발송된 레코드의 오프셋이 컨테이너 종료 시 커밋됩니다.
+     * @return 시간 안에 모두 acknowledge 했으면 true (중단되어 ack 하지 못한 이벤트가 있으면 false)
+     */
+    public boolean drain(long timeoutMs) throws InterruptedException {
+        flushAll();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (pendingEvents.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            // 배출 중에 들어온 이벤트도 창을 기다리지 않고 보냅니다.
+            flushAll();
+            Thread.sleep(20);
+        }
+        return true;
+    }
+
+    /**
+     * 회수되는 파티션의 이벤트를 커밋 전에 정리합니다. 리밸런스 리스너(onPartitionsRevokedBeforeCommit)에서 호출합니다.
+     * 모아둔 묶음을 바로 발송하고 그 파티션의 이벤트가 모두 acknowledge 될 때까지 최대 timeoutMs 동안 기다리며,
+     * 시간 안에 끝나지 않은 이벤트는 포기합니다. 포기한 이벤트는 새 소유자에게 재전달되며, 늦게 발송이 끝나도 회수된 파티션에 ack 하지 않습니다.
+     * @return 시간 안에 모두 acknowledge 했으면 true
+     */
+    public boolean drainPartitions(Collection<TopicPartition> partitions, long timeoutMs) throws InterruptedException {
+        // 묶음은 고객 단위라 파티션이 섞여 있을 수 있으므로 모두 발송합니다. 일찍 보내는 것일 뿐 중복 발송은 없습니다.
+        flushAll();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            while (partitions.stream().anyMatch(this::hasUnacknowledged)) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                Thread.sleep(20);
+            }
+            return true;
+        } finally {
+            int abandoned = 0;
+            for (TopicPartition partition : partitions) {
+                Set<PendingEvent> partitionEvents = unacknowledged.remove(partition);
+                if (partitionEvents == null) {
+                    continue;
+                }
+                for (PendingEvent pendingEvent : List.copyOf(partitionEvents)) {
+                    resolve(pendingEvent, false);
+                    abandoned++;
+                }
+            }
+            if (abandoned > 0) {
+                log.warn("Abandoned {} unacknowledged notification events on revoked partitions {}. They will be redelivered.",
+                        abandoned, partitions);
+            }
+        }
+    }
+
+    private boolean hasUnacknowledged(TopicPartition partition) {
+        Set<PendingEvent> partitionEvents = unacknowledged.get(partition);
+        return partitionEvents != null && !partitionEvents.isEmpty();
+    }
+
+    private void flushAll() {
+        for (PendingBatch batch : List.copyOf(pendingBatches.values())) {
+            flush(batch);
+        }
+    }
+
+    /**
+     * 모아둔 묶음을 모두 발송하고 shutdown-timeout-ms 까지 발송 완료를 기다립니다.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        windowScheduler.shutdownNow();
+        flushAll();
+        dispatchExecutor.shutdown();
+        if (!dispatchExecutor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+            log.warn("Notification dispatch did not finish within {} ms. {} events will be redelivered.", shutdownTimeoutMs, pendingEvents.get());
+            dispatchExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 묶음에 들어간 이벤트 하나. 파티션별 집합에 담기므로 값이 아닌 객체 동일성으로 비교합니다.
+     */
+    private static final class PendingEvent {
+        private final InsuranceEvent event;
+        private final TopicPartition partition;
+        private final Acknowledgment acknowledgment;
+        // acknowledge 또는 포기 중 먼저 일어난 한 번만 적용합니다.
+        private final AtomicBoolean resolved = new AtomicBoolean();
+
+        private PendingEvent(InsuranceEvent event, TopicPartition partition, Acknowledgment acknowledgment) {
+            this.event = event;
+            this.partition = partition;
+            this.acknowledgment = acknowledgment;
+        }
+    }
+
+    private static final class PendingBatch {
+        private final String customerId;
+        // pendingBatches.compute 안에서만 추가되고, 맵에서 제거된 뒤에만 읽습니다.
+        private final List<PendingEvent> events = new ArrayList<>();
+
+        private PendingBatch(String customerId) {
+            this.customerId = customerId;
+        }
+    }
+
+    /**
+     * 채널별 발송 한도(초당 발송 수, 동시 발송 수)와 재시도를 담당합니다.
+     */
+    private final class ChannelGate {
+        private final NotificationSender sender;
+        private final TokenBucket rateLimit;
+        private final Semaphore concurrency;
+        private final Counter sent;
+        private final Counter failed;
+
+        private ChannelGate(NotificationSender sender, TokenBucket rateLimit, Semaphore concurrency, MeterRegistry meterRegistry) {
+            this.sender = sender;
+            this.rateLimit = rateLimit;
+            this.concurrency = concurrency;
+            this.sent = Counter.builder("insurance.notification.sent")
+                    .tag("channel", sender.channel().name())
+                    .register(meterRegistry);
+            this.failed = Counter.builder("insurance.notification.failed")
+                    .tag("channel", sender.channel().name())
+                    .register(meterRegistry);
+        }
+
+        private void send(CustomerNotification notification) throws InterruptedException {
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                awaitRatePermit();
+                concurrency.acquire();
+                try {
+                    sender.send(notification);
+                    sent.increment();
+                    return;
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.warn("[{}] Notification attempt {}/{} failed for customer {}: {}",
+                            notification.channel(), attempt, maxAttempts, notification.customerId(), e.getMessage());
+                } finally {
+                    concurrency.release();
+                }
+                if (attempt < maxAttempts) {
+                    Thread.sleep(retryBackoffMs * attempt);
+                }
+            }
+            // 재시도를 모두 실패해도 오프셋은 진행시켜 뒤의 레코드 커밋이 막히지 않도록 합니다.
+            failed.increment();
+            log.error("[{}] Giving up notification for customer {} policies {}",
+                    notification.channel(), notification.customerId(), notification.policyNumbers());
+        }
+
+        private void awaitRatePermit() throws InterruptedException {
+            if (rateLimit == null) {
+                return;
+            }
+            long waitNanos;
+            while ((waitNanos = rateLimit.tryAcquire()) > 0) {
+                LockSupport.parkNanos(waitNanos);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.insurance_project.notification;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.Collection;
+
+/**
+ * notification-group-avro 컨테이너의 리밸런스 리스너입니다.
+ * 파티션이 회수되면 컨테이너가 남은 ack 를 커밋하기 직전에 NotificationDispatcher 에 모인 그 파티션의 이벤트를 발송/ack 합니다.
+ * 비동기 ack 가 커밋 이후에 도착하면 이미 다른 컨슈머에게 넘어간 파티션이라 커밋되지 않고, 새 소유자가 같은 레코드를 다시 발송합니다.
+ * <p>
+ * 리밸런스가 끝날 때까지 그룹 전체가 멈추므로 revoke-timeout-ms 안에 끝나지 않은 이벤트는 포기하고 새 소유자에게 맡깁니다.
+ */
+public class NotificationRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRebalanceListener.class);
+
+    private final NotificationDispatcher notificationDispatcher;
+    private final long revokeTimeoutMs;
+
+    public NotificationRebalanceListener(NotificationDispatcher notificationDispatcher, long revokeTimeoutMs) {
+        this.notificationDispatcher = notificationDispatcher;
+        this.revokeTimeoutMs = revokeTimeoutMs;
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        try {
+            if (!notificationDispatcher.drainPartitions(partitions, revokeTimeoutMs)) {
+                log.warn("Could not acknowledge notifications for revoked partitions {} within {} ms.", partitions, revokeTimeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.insurance_project.notification;
+
+/**
+ * 채널별 실제 발송 구현체입니다. (이메일, 카카오톡 등)
+ * 이 타입의 빈을 등록하면 해당 채널의 기본 스텁 발송기를 대체합니다.
+ * send()는 NotificationDispatcher의 발송 스레드에서 호출되므로 블로킹 I/O를 사용해도 됩니다.
+ */
+public interface NotificationSender {
+
+    NotificationChannel channel();
+
+    /**
+     * 알림을 발송합니다. 예외를 던지면 NotificationDispatcher가 재시도합니다.
+     */
+    void send(CustomerNotification notification) throws Exception;
+}
@@ -0,0 +1,43 @@
+package com.example.insurance_project.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 외부 발송 없이 로그만 남기는 로컬/테스트용 발송기입니다.
+ * latency-ms 만큼 대기하여 실제 발송 I/O의 지연을 흉내낼 수 있습니다.
+ */
+public class StubNotificationSender implements NotificationSender {
+
+    private static final Logger log = LoggerFactory.getLogger(StubNotificationSender.class);
+
+    private final NotificationChannel channel;
+    private final long latencyMs;
+    private final AtomicLong sentCount = new AtomicLong();
+
+    public StubNotificationSender(NotificationChannel channel, long latencyMs) {
+        this.channel = channel;
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public NotificationChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public void send(CustomerNotification notification) throws InterruptedException {
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+        sentCount.incrementAndGet();
+        log.info("-> [{}] Sending notification to customer {} for policies {}",
+                channel, notification.customerId(), notification.policyNumbers());
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+}
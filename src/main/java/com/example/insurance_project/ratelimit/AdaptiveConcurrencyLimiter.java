@@ -0,0 +1,93 @@
+package com.example.insurance_project.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * 관측된 응답 지연에 따라 동시 처리 한도를 조정하는 AIMD(Additive Increase / Multiplicative Decrease) 리미터입니다.
+ * <ul>
+ *     <li>요청이 목표 지연(targetLatency) 이내에 끝나면 한도를 1/limit 만큼 늘립니다. (한도당 대략 +1 / RTT)</li>
+ *     <li>목표 지연을 넘기면 한도에 backoffRatio 를 곱해 줄입니다. 단, 줄이는 것은 RTT당 한 번뿐입니다.
+ *     직전 감소 이전에 시작된 요청은 감소 전 한도에서 받아들인 것이므로, 그 요청들이 늦게 끝나도 다시 줄이지 않습니다.</li>
+ * </ul>
+ * 한도를 넘는 요청은 큐에 쌓지 않고 즉시 거절하므로, 허용된 요청의 p99가 목표 지연 근처로 유지됩니다.
+ * 진행 중 요청 수와 한도는 Atomic 변수로만 관리하며 락을 사용하지 않습니다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // lastDecreaseNanos 의 "아직 줄인 적 없음" 표시
+    private static final long NO_DECREASE = Long.MIN_VALUE;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // double 한도를 비트로 저장 (Double.doubleToRawLongBits)
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(NO_DECREASE);
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyMs, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.backoffRatio = backoffRatio;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(clamp(initialLimit)));
+    }
+
+    /**
+     * 처리 슬롯을 하나 확보합니다. 성공하면 반드시 {@link #release(long)}를 호출해야 합니다.
+     */
+    public boolean tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > getLimit()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 처리 슬롯을 반납하고 관측된 지연으로 한도를 조정합니다.
+     */
+    public void release(long latencyNanos) {
+        release(latencyNanos, System.nanoTime());
+    }
+
+    void release(long latencyNanos, long nowNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos <= targetLatencyNanos) {
+            updateLimit(limit -> limit + 1.0 / limit);
+            return;
+        }
+        long startNanos = nowNanos - latencyNanos;
+        long last = lastDecreaseNanos.get();
+        if (last != NO_DECREASE && startNanos - last < 0) {
+            // 직전 감소 이전에 시작된 요청이므로 같은 혼잡으로 보고 무시합니다.
+            return;
+        }
+        // 동시에 끝난 느린 요청 중 하나만 감소를 적용합니다.
+        if (lastDecreaseNanos.compareAndSet(last, nowNanos)) {
+            updateLimit(limit -> limit * backoffRatio);
+        }
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void updateLimit(DoubleUnaryOperator operator) {
+        limitBits.updateAndGet(bits -> Double.doubleToRawLongBits(clamp(operator.applyAsDouble(Double.longBitsToDouble(bits)))));
+    }
+
+    private double clamp(double limit) {
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+}
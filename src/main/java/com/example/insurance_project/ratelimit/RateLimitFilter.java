@@ -0,0 +1,232 @@
+package com.example.insurance_project.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 계약/이벤트 수신 API 앞단에서 요청을 받아들일지 결정하는 필터입니다.
+ * <ol>
+ *     <li>클라이언트(원격 IP)별 토큰 버킷 - 초과 시 429 Too Many Requests</li>
+ *     <li>엔드포인트별 토큰 버킷 - 초과 시 429</li>
+ *     <li>엔드포인트별 지연 기반 적응형 동시 처리 한도 - 초과 시 503 Service Unavailable</li>
+ * </ol>
+ * 클라이언트 버킷을 먼저 확인하므로 한도를 넘긴 클라이언트의 요청이 다른 클라이언트와 함께 쓰는 엔드포인트 토큰을 소모하지 않습니다.
+ * 동시 처리 한도는 엔드포인트마다 따로 두어, 느린 batch-sign 요청의 지연이 sign/insurance-event 한도를 줄이지 않도록 합니다.
+ * 거절 응답에는 Retry-After 헤더를 붙이며, Tomcat 스레드나 Kafka 프로듀서 버퍼에 작업을 쌓지 않고 바로 돌려보냅니다.
+ * <p>
+ * 클라이언트 키는 요청 헤더가 아닌 getRemoteAddr() 만 사용합니다. 클라이언트가 바꿀 수 있는 헤더로는 한도를 우회할 수 없으며,
+ * 신뢰하는 프록시(ingress/nginx) 뒤에서는 server.forward-headers-strategy=native (Tomcat RemoteIpValve)가
+ * 내부 프록시 주소를 건너뛴 실제 클라이언트 IP를 getRemoteAddr() 로 돌려줍니다.
+ * <p>
+ * 종료 시에는 {@link #startDraining()} 이후의 새 요청을 한도 설정(insurance.ratelimit.enabled)과 상관없이 503으로 돌려보내고,
+ * {@link #awaitInFlight(long)} 로 이미 받은 요청이 끝나기를 기다립니다. (GracefulShutdownCoordinator)
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String ENDPOINT_SIGN = "sign";
+    private static final String ENDPOINT_BATCH_SIGN = "batch-sign";
+    private static final String ENDPOINT_INSURANCE_EVENT = "insurance-event";
+
+    // 클라이언트 버킷 최대 개수. 가득 차면 새 클라이언트는 유휴 버킷이 정리될 때까지 overflowBucket 하나를 함께 사용합니다.
+    private static final int MAX_CLIENT_BUCKETS = 10_000;
+
+    private final Map<String, TokenBucket> endpointBuckets;
+    private final Supplier<TokenBucket> clientBucketFactory;
+    private final Map<String, AdaptiveConcurrencyLimiter> concurrencyLimiters;
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflowBucket;
+    private final boolean limitsEnabled;
+
+    // 종료 중 여부와 필터를 통과해 처리 중인 요청 수 (한도 적용 여부와 무관하게 집계)
+    private volatile boolean draining;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter rejectedByEndpoint;
+    private final Counter rejectedByClient;
+    private final Counter rejectedByConcurrency;
+    private final Counter rejectedByDraining;
+
+    public RateLimitFilter(Map<String, TokenBucket> endpointBuckets,
+                           Supplier<TokenBucket> clientBucketFactory,
+                           Map<String, AdaptiveConcurrencyLimiter> concurrencyLimiters,
+                           boolean limitsEnabled,
+                           MeterRegistry meterRegistry) {
+        this.endpointBuckets = endpointBuckets;
+        this.clientBucketFactory = clientBucketFactory;
+        this.concurrencyLimiters = concurrencyLimiters;
+        this.overflowBucket = clientBucketFactory.get();
+        this.limitsEnabled = limitsEnabled;
+
+        this.rejectedByEndpoint = rejectedCounter(meterRegistry, "endpoint");
+        this.rejectedByClient = rejectedCounter(meterRegistry, "client");
+        this.rejectedByConcurrency = rejectedCounter(meterRegistry, "concurrency");
+        this.rejectedByDraining = rejectedCounter(meterRegistry, "draining");
+        concurrencyLimiters.forEach((endpoint, limiter) -> {
+            Gauge.builder("insurance.ratelimit.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            Gauge.builder("insurance.ratelimit.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requests currently admitted by the concurrency limiter")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String endpoint = resolveEndpoint(request);
+        if (endpoint == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 종료 중 확인보다 먼저 집계해야 awaitInFlight() 가 0을 본 뒤에 통과하는 요청이 생기지 않습니다.
+        inFlight.incrementAndGet();
+        try {
+            if (draining) {
+                rejectedByDraining.increment();
+                // keep-alive 연결을 닫아 클라이언트가 다른 파드로 다시 연결하도록 합니다.
+                response.setHeader(HttpHeaders.CONNECTION, "close");
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), "Server is shutting down");
+                return;
+            }
+            if (!limitsEnabled) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            applyLimits(request, response, filterChain, endpoint);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void applyLimits(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String endpoint)
+            throws ServletException, IOException {
+        // 1. 클라이언트별 한도
+        long waitNanos = clientBucket(request.getRemoteAddr()).tryAcquire();
+        if (waitNanos > 0) {
+            rejectedByClient.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos, "Client rate limit exceeded");
+            return;
+        }
+
+        // 2. 엔드포인트별 한도
+        TokenBucket endpointBucket = endpointBuckets.get(endpoint);
+        waitNanos = endpointBucket == null ? 0 : endpointBucket.tryAcquire();
+        if (waitNanos > 0) {
+            rejectedByEndpoint.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos, "Endpoint rate limit exceeded");
+            return;
+        }
+
+        // 3. 엔드포인트별 적응형 동시 처리 한도
+        AdaptiveConcurrencyLimiter concurrencyLimiter = concurrencyLimiters.get(endpoint);
+        if (concurrencyLimiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            rejectedByConcurrency.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), "Server is saturated");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private String resolveEndpoint(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("/api/contracts/sign".equals(path)) {
+            return ENDPOINT_SIGN;
+        }
+        if ("/api/contracts/batch-sign".equals(path)) {
+            return ENDPOINT_BATCH_SIGN;
+        }
+        if (path.startsWith("/kafka/") && path.endsWith("/insurance-event")) {
+            return ENDPOINT_INSURANCE_EVENT;
+        }
+        return null;
+    }
+
+    private TokenBucket clientBucket(String clientId) {
+        TokenBucket bucket = clientBuckets.get(clientId);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (clientBuckets.size() >= MAX_CLIENT_BUCKETS) {
+            // 요청 경로에서는 맵을 훑지 않습니다. 정리는 evictIdleClientBuckets() 가 주기적으로 수행합니다.
+            return overflowBucket;
+        }
+        return clientBuckets.computeIfAbsent(clientId, id -> clientBucketFactory.get());
+    }
+
+    /**
+     * 이후 들어오는 대상 요청을 모두 503 + Retry-After 로 거절합니다. 되돌리지 않습니다.
+     */
+    public void startDraining() {
+        draining = true;
+    }
+
+    /**
+     * 필터를 통과해 처리 중인 요청이 모두 끝날 때까지 최대 timeoutMs 동안 기다립니다.
+     * @return 시간 안에 모두 끝났으면 true
+     */
+    public boolean awaitInFlight(long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+
+    /**
+     * 가득 찬(유휴) 클라이언트 버킷을 제거합니다. 새로 만들어도 같은 상태이므로 제거해도 한도가 완화되지 않습니다.
+     * 요청 스레드가 아닌 스케줄러에서 주기적으로 호출합니다. (RateLimitConfig)
+     */
+    public void evictIdleClientBuckets() {
+        clientBuckets.values().removeIf(TokenBucket::isIdle);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterNanos, String message) throws IOException {
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(retryAfterNanos / 1_000_000_000.0));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + status.value() + ",\"error\":\"" + message + "\"}");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("insurance.ratelimit.rejected")
+                .description("Requests rejected by the ingress rate limiter")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.insurance_project.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 락 없이 동작하는 토큰 버킷입니다.
+ * GCRA(Generic Cell Rate Algorithm) 방식으로 "다음 토큰이 준비되는 이론적 시각(TAT)" 하나만 AtomicLong에 저장하고
+ * CAS로 갱신하므로, 요청 스레드가 서로를 블로킹하지 않습니다.
+ * 초당 permitsPerSecond 개의 토큰이 채워지고 최대 burst 개까지 한 번에 사용할 수 있는 토큰 버킷과 동일하게 동작합니다.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be > 0 and burst must be >= 1");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstToleranceNanos = intervalNanos * (burst - 1);
+        this.theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * 토큰 하나를 사용합니다.
+     * @return 0이면 허용, 양수이면 토큰이 준비될 때까지 기다려야 하는 시간(나노초)
+     */
+    public long tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalNanos.get();
+            long newTat = Math.max(tat, now) + intervalNanos;
+            long waitNanos = newTat - now - burstToleranceNanos - intervalNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 버킷이 가득 찬 상태(마지막 사용 이후 충분한 시간이 지남)인지 확인합니다. 유휴 버킷 정리에 사용합니다.
+     */
+    public boolean isIdle() {
+        return theoreticalArrivalNanos.get() <= System.nanoTime();
+    }
+}
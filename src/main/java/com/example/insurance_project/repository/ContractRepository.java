@@ -1,8 +1,17 @@
-
 package com.example.insurance_project.repository;
 
 import com.example.insurance_project.domain.Contract;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ContractRepository extends JpaRepository<Contract, Long> {
+
+    // 아카이브 내보내기용: (createdAt, id) 키셋 이후의 계약을 createdAt, id 순으로 페이지 단위 조회
+    @Query("select c from Contract c where c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id) order by c.createdAt asc, c.id asc")
+    List<Contract> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,43 @@
+package com.example.insurance_project.controller;
+
+import com.example.insurance_project.kafka.PolicyStateQueryService;
+import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaControllerTest {
+
+	@Test
+	void returnsServiceUnavailableWhileStreamsIsNotRunning() {
+		// 시작하지 않은 팩토리 빈은 KafkaStreams 인스턴스가 없습니다.
+		PolicyStateQueryService queryService = new PolicyStateQueryService(new StreamsBuilderFactoryBean());
+		KafkaController controller = new KafkaController(null, queryService, null);
+
+		ResponseEntity<String> response = controller.getPolicyState("POL-1");
+
+		assertThat(response.getStatusCode().value()).isEqualTo(503);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+	}
+
+	@Test
+	void returnsNotFoundOnlyForMissingKey() {
+		PolicyStateQueryService queryService = new PolicyStateQueryService(null) {
+			@Override
+			public Optional<InsuranceEvent> findLatest(String policyNumber) {
+				return Optional.empty();
+			}
+		};
+		KafkaController controller = new KafkaController(null, queryService, null);
+
+		ResponseEntity<String> response = controller.getPolicyState("POL-404");
+
+		assertThat(response.getStatusCode().value()).isEqualTo(404);
+		assertThat(response.getHeaders().containsKey(HttpHeaders.RETRY_AFTER)).isFalse();
+	}
+}
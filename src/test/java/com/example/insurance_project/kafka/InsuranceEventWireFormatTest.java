@@ -0,0 +1,210 @@
+package com.example.insurance_project.kafka;
+
+import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InsuranceEventWireFormatTest {
+
+	private static final String TOPIC = "contract-events";
+
+	private MockSchemaRegistryClient schemaRegistryClient;
+	private KafkaAvroSerializer serializer;
+	private KafkaAvroDeserializer deserializer;
+	private InsuranceEventWireFormat wireFormat;
+
+	@BeforeEach
+	void setUp() {
+		// 직렬화기와 같은 레지스트리를 공유해야 스키마 ID가 같아집니다.
+		schemaRegistryClient = new MockSchemaRegistryClient();
+		serializer = new KafkaAvroSerializer(schemaRegistryClient, Map.of(
+				"schema.registry.url", "mock://insurance",
+				"auto.register.schemas", true));
+		deserializer = new KafkaAvroDeserializer(schemaRegistryClient, Map.of(
+				"schema.registry.url", "mock://insurance",
+				"specific.avro.reader", true));
+		wireFormat = new InsuranceEventWireFormat(schemaRegistryClient, new JsonFactory(), TOPIC);
+	}
+
+	@AfterEach
+	void tearDown() {
+		serializer.close();
+		deserializer.close();
+	}
+
+	@Test
+	void encodesSameBytesAsKafkaAvroSerializer() throws IOException {
+		InsuranceEvent event = InsuranceEvent.newBuilder()
+				.setEventId("evt-1")
+				.setEventType("CONTRACT_SIGNED")
+				.setPolicyNumber("POL-1")
+				.setCustomerId("CUST-1")
+				.setEventData("{\"premium\":1000}")
+				.setAgentId("AGENT-1")
+				.setEventTimestamp(1_700_000_000_000L)
+				.build();
+
+		// 필드 순서가 스키마와 달라도 같은 바이트가 나와야 합니다.
+		InsuranceEventWireFormat.EncodedEvent encoded = encode("""
+				{"eventTimestamp":1700000000000,"agentId":"AGENT-1","eventId":"evt-1","eventType":"CONTRACT_SIGNED",
+				 "policyNumber":"POL-1","customerId":"CUST-1","eventData":"{\\"premium\\":1000}"}
+				""");
+
+		assertThat(encoded.payload()).isEqualTo(serializer.serialize(TOPIC, event));
+		assertThat(encoded.policyNumber()).isEqualTo("POL-1");
+	}
+
+	@Test
+	void encodesNullAgentIdLikeKafkaAvroSerializer() throws IOException {
+		InsuranceEvent event = InsuranceEvent.newBuilder()
+				.setEventId("evt-2")
+				.setEventType("CONTRACT_SIGNED")
+				.setPolicyNumber("POL-2")
+				.setCustomerId("CUST-2")
+				.setEventData("{}")
+				.setAgentId(null)
+				.setEventTimestamp(1L)
+				.build();
+
+		InsuranceEventWireFormat.EncodedEvent encoded = encode("""
+				{"eventId":"evt-2","eventType":"CONTRACT_SIGNED","policyNumber":"POL-2","customerId":"CUST-2",
+				 "eventData":"{}","agentId":null,"eventTimestamp":1}
+				""");
+
+		assertThat(encoded.payload()).isEqualTo(serializer.serialize(TOPIC, event));
+	}
+
+	@Test
+	void fillsDefaultsForOmittedFieldsLikeKafkaAvroSerializer() throws IOException {
+		// agentId(null), eventTimestamp(0)는 빌더 기본값을 사용합니다.
+		InsuranceEvent event = InsuranceEvent.newBuilder()
+				.setEventId("evt-3")
+				.setEventType("CONTRACT_CANCELLED")
+				.setPolicyNumber("POL-3")
+				.setCustomerId("CUST-3")
+				.setEventData("{}")
+				.build();
+
+		InsuranceEventWireFormat.EncodedEvent encoded = encode("""
+				{"eventId":"evt-3","eventType":"CONTRACT_CANCELLED","policyNumber":"POL-3","customerId":"CUST-3","eventData":"{}"}
+				""");
+
+		assertThat(encoded.payload()).isEqualTo(serializer.serialize(TOPIC, event));
+	}
+
+	@Test
+	void roundTripsThroughKafkaAvroDeserializer() throws IOException {
+		InsuranceEventWireFormat.EncodedEvent encoded = encode("""
+				{"eventId":"evt-4","eventType":"CONTRACT_SIGNED","policyNumber":"POL-4","customerId":"CUST-4",
+				 "eventData":"{}","agentId":"AGENT-4","eventTimestamp":42}
+				""");
+
+		Object deserialized = deserializer.deserialize(TOPIC, encoded.payload());
+
+		assertThat(deserialized).isInstanceOf(InsuranceEvent.class);
+		InsuranceEvent event = (InsuranceEvent) deserialized;
+		assertThat(event.getEventId()).isEqualTo("evt-4");
+		assertThat(event.getPolicyNumber()).isEqualTo("POL-4");
+		assertThat(event.getCustomerId()).isEqualTo("CUST-4");
+		assertThat(event.getAgentId()).isEqualTo("AGENT-4");
+		assertThat(event.getEventTimestamp()).isEqualTo(42L);
+	}
+
+	@Test
+	void rejectsTrailingContentAfterObject() {
+		assertThatThrownBy(() -> encode("""
+				{"eventId":"evt-5","eventType":"CONTRACT_SIGNED","policyNumber":"POL-5","customerId":"CUST-5","eventData":"{}"} {"eventId":"evt-6"}
+				"""))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("after InsuranceEvent JSON object");
+	}
+
+	@Test
+	void rejectsMissingRequiredFieldAndWrongType() {
+		assertThatThrownBy(() -> encode("""
+				{"eventId":"evt-7","eventType":"CONTRACT_SIGNED","customerId":"CUST-7","eventData":"{}"}
+				"""))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("policyNumber");
+		assertThatThrownBy(() -> encode("""
+				{"eventId":"evt-8","eventType":"CONTRACT_SIGNED","policyNumber":"POL-8","customerId":"CUST-8",
+				 "eventData":"{}","eventTimestamp":"yesterday"}
+				"""))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("eventTimestamp");
+	}
+
+	@Test
+	void validateAcceptsSerializerOutputAndRejectsOtherPayloads() throws IOException {
+		InsuranceEvent event = InsuranceEvent.newBuilder()
+				.setEventId("evt-9")
+				.setEventType("CONTRACT_SIGNED")
+				.setPolicyNumber("POL-9")
+				.setCustomerId("CUST-9")
+				.setEventData("{}")
+				.build();
+		byte[] payload = serializer.serialize(TOPIC, event);
+
+		wireFormat.validate(payload);
+
+		byte[] wrongMagic = payload.clone();
+		wrongMagic[0] = 0x1;
+		assertThatThrownBy(() -> wireFormat.validate(wrongMagic)).isInstanceOf(IllegalArgumentException.class);
+
+		byte[] unknownSchemaId = payload.clone();
+		unknownSchemaId[4] = 0x7f;
+		assertThatThrownBy(() -> wireFormat.validate(unknownSchemaId)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void validateRejectsMalformedBodyUnderValidHeader() {
+		InsuranceEvent event = InsuranceEvent.newBuilder()
+				.setEventId("evt-10")
+				.setEventType("CONTRACT_SIGNED")
+				.setPolicyNumber("POL-10")
+				.setCustomerId("CUST-10")
+				.setEventData("{}")
+				.setAgentId("AGENT-10")
+				.build();
+		byte[] payload = serializer.serialize(TOPIC, event);
+
+		// 본문이 잘린 경우
+		byte[] truncated = Arrays.copyOf(payload, payload.length - 1);
+		assertThatThrownBy(() -> wireFormat.validate(truncated))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Malformed Avro record body");
+
+		// 레코드 뒤에 바이트가 남는 경우
+		byte[] trailing = Arrays.copyOf(payload, payload.length + 1);
+		assertThatThrownBy(() -> wireFormat.validate(trailing))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("after Avro record body");
+
+		// 헤더 바로 뒤 eventId 길이를 음수(zigzag 1 = -1)로 바꾼 경우
+		byte[] negativeLength = payload.clone();
+		negativeLength[5] = 0x1;
+		assertThatThrownBy(() -> wireFormat.validate(negativeLength)).isInstanceOf(IllegalArgumentException.class);
+
+		// 헤더만 있고 본문이 없는 경우
+		byte[] headerOnly = Arrays.copyOf(payload, 6);
+		assertThatThrownBy(() -> wireFormat.validate(headerOnly)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private InsuranceEventWireFormat.EncodedEvent encode(String json) throws IOException {
+		return wireFormat.encodeJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,248 @@
+package com.example.insurance_project.notification;
+
+import com.example.insurance_project.kafka.avro.InsuranceEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationDispatcherTest {
+
+	private static final TopicPartition PARTITION_0 = new TopicPartition("contract-events", 0);
+	private static final TopicPartition PARTITION_1 = new TopicPartition("contract-events", 1);
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger acks = new AtomicInteger();
+	private final Acknowledgment acknowledgment = acks::incrementAndGet;
+
+	private NotificationDispatcher dispatcher;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (dispatcher != null) {
+			dispatcher.close();
+		}
+	}
+
+	@Test
+	void batchesEventsPerCustomerWithinWindow() throws InterruptedException {
+		RecordingSender email = new RecordingSender(NotificationChannel.EMAIL);
+		RecordingSender kakao = new RecordingSender(NotificationChannel.KAKAO);
+		dispatcher = dispatcher(List.of(email, kakao), 200, 10, 3);
+
+		dispatcher.submit(event("CUST-1", "POL-1"), PARTITION_0, acknowledgment);
+		dispatcher.submit(event("CUST-1", "POL-2"), PARTITION_0, acknowledgment);
+		dispatcher.submit(event("CUST-2", "POL-3"), PARTITION_0, acknowledgment);
+
+		// 창이 끝나기 전에는 발송하지 않습니다.
+		assertThat(email.sent).isEmpty();
+		assertThat(dispatcher.getPendingEvents()).isEqualTo(3);
+
+		awaitTrue(() -> acks.get() == 3);
+		assertThat(email.sent).hasSize(2);
+		assertThat(kakao.sent).hasSize(2);
+		CustomerNotification first = email.sentTo("CUST-1");
+		assertThat(first.policyNumbers()).containsExactly("POL-1", "POL-2");
+		assertThat(email.sentTo("CUST-2").policyNumbers()).containsExactly("POL-3");
+		assertThat(kakao.sentTo("CUST-1").events()).hasSize(2);
+		assertThat(dispatcher.getPendingEvents()).isZero();
+	}
+
+	@Test
+	void flushesEarlyWhenBatchIsFull() throws InterruptedException {
+		RecordingSender email = new RecordingSender(NotificationChannel.EMAIL);
+		// 창이 끝나기를 기다리면 테스트 시간 안에 발송되지 않도록 창을 길게 둡니다.
+		dispatcher = dispatcher(List.of(email), 60_000, 3, 3);
+
+		for (int i = 1; i <= 3; i++) {
+			dispatcher.submit(event("CUST-1", "POL-" + i), PARTITION_0, acknowledgment);
+		}
+		awaitTrue(() -> acks.get() == 3);
+		assertThat(email.sent).hasSize(1);
+		assertThat(email.sent.get(0).events()).hasSize(3);
+
+		// 다음 이벤트는 새 묶음에서 창 또는 max-batch-size 를 다시 기다립니다.
+		dispatcher.submit(event("CUST-1", "POL-4"), PARTITION_0, acknowledgment);
+		Thread.sleep(200);
+		assertThat(email.sent).hasSize(1);
+		assertThat(acks.get()).isEqualTo(3);
+	}
+
+	@Test
+	void acknowledgesOnlyAfterEveryChannelIsSent() throws InterruptedException {
+		RecordingSender email = new RecordingSender(NotificationChannel.EMAIL);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingSender kakao = new RecordingSender(NotificationChannel.KAKAO) {
+			@Override
+			public void send(CustomerNotification notification) throws Exception {
+				release.await();
+				super.send(notification);
+			}
+		};
+		dispatcher = dispatcher(List.of(email, kakao), 60_000, 1, 3);
+
+		dispatcher.submit(event("CUST-1", "POL-1"), PARTITION_0, acknowledgment);
+
+		awaitTrue(() -> email.sent.size() == 1);
+		// 이메일은 보냈지만 카카오 발송이 끝나지 않았으므로 오프셋을 커밋하면 안 됩니다.
+		Thread.sleep(100);
+		assertThat(acks.get()).isZero();
+		assertThat(dispatcher.getPendingEvents()).isEqualTo(1);
+
+		release.countDown();
+		awaitTrue(() -> acks.get() == 1);
+		assertThat(kakao.sent).hasSize(1);
+	}
+
+	@Test
+	void acknowledgesAfterRetriesAreExhausted() throws InterruptedException {
+		RecordingSender email = new RecordingSender(NotificationChannel.EMAIL);
+		RecordingSender kakao = new RecordingSender(NotificationChannel.KAKAO) {
+			@Override
+			public void send(CustomerNotification notification) throws Exception {
+				attempts.incrementAndGet();
+				throw new IllegalStateException("kakao unavailable");
+			}
+		};
+		dispatcher = dispatcher(List.of(email, kakao), 60_000, 1, 2);
+
+		dispatcher.submit(event("CUST-1", "POL-1"), PARTITION_0, acknowledgment);
+
+		// 재시도를 모두 실패해도 뒤의 레코드 커밋이 막히지 않도록 acknowledge 합니다.
+		awaitTrue(() -> acks.get() == 1);
+		assertThat(kakao.attempts.get()).isEqualTo(2);
+		assertThat(email.sent).hasSize(1);
+		assertThat(meterRegistry.get("insurance.notification.failed").tag("channel", "KAKAO").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("insurance.notification.sent").tag("channel", "EMAIL").counter().count()).isEqualTo(1);
+		assertThat(dispatcher.getPendingEvents()).isZero();
+	}
+
+	@Test
+	void drainDoesNotReportInterruptedDispatchAsDrained() throws InterruptedException {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingSender email = new RecordingSender(NotificationChannel.EMAIL) {
+			@Override
+			public void send(CustomerNotification notification) throws Exception {
+				entered.countDown();
+				release.await();
+				super.send(notification);
+			}
+		};
+		dispatcher = dispatcher(List.of(email), 60_000, 1, 3);
+
+		dispatcher.submit(event("CUST-1", "POL-1"), PARTITION_0, acknowledgment);
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+		// shutdown-timeout-ms(1초) 뒤 발송 스레드가 중단됩니다.
+		dispatcher.close();
+
+		assertThat(dispatcher.drain(100)).isFalse();
+		assertThat(acks.get()).isZero();
+		assertThat(dispatcher.getPendingEvents()).isEqualTo(1);
+	}
+
+	@Test
+	void drainPartitionsAcknowledgesRevokedPartitionBeforeReturning() throws InterruptedException {
+		RecordingSender email = new RecordingSender(NotificationChannel.EMAIL);
+		dispatcher = dispatcher(List.of(email), 60_000, 10, 3);
+		AtomicInteger revokedAcks = new AtomicInteger();
+
+		dispatcher.submit(event("CUST-1", "POL-1"), PARTITION_0, revokedAcks::incrementAndGet);
+		dispatcher.submit(event("CUST-2", "POL-2"), PARTITION_1, acknowledgment);
+
+		// 창(60초)을 기다리지 않고 회수되는 파티션의 이벤트를 발송/ack 한 뒤에 반환해야 합니다.
+		assertThat(dispatcher.drainPartitions(List.of(PARTITION_0), 5000)).isTrue();
+		assertThat(revokedAcks.get()).isEqualTo(1);
+		assertThat(email.sentTo("CUST-1").policyNumbers()).containsExactly("POL-1");
+	}
+
+	@Test
+	void drainPartitionsAbandonsEventsThatMissTheDeadline() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingSender email = new RecordingSender(NotificationChannel.EMAIL) {
+			@Override
+			public void send(CustomerNotification notification) throws Exception {
+				release.await();
+				super.send(notification);
+			}
+		};
+		dispatcher = dispatcher(List.of(email), 60_000, 10, 3);
+
+		dispatcher.submit(event("CUST-1", "POL-1"), PARTITION_0, acknowledgment);
+
+		assertThat(dispatcher.drainPartitions(List.of(PARTITION_0), 100)).isFalse();
+		assertThat(dispatcher.getPendingEvents()).isZero();
+
+		// 포기한 이벤트는 발송이 늦게 끝나도 이미 넘어간 파티션에 ack 하지 않습니다.
+		release.countDown();
+		awaitTrue(() -> email.sent.size() == 1);
+		Thread.sleep(100);
+		assertThat(acks.get()).isZero();
+		assertThat(dispatcher.getPendingEvents()).isZero();
+	}
+
+	private NotificationDispatcher dispatcher(List<NotificationSender> senders, long windowMs, int maxBatchSize, int maxAttempts) {
+		return new NotificationDispatcher(senders, Map.of(), 4, 4, windowMs, maxBatchSize, maxAttempts, 10, 1000, meterRegistry);
+	}
+
+	private static InsuranceEvent event(String customerId, String policyNumber) {
+		return InsuranceEvent.newBuilder()
+				.setEventId("evt-" + policyNumber)
+				.setEventType("CONTRACT_SIGNED")
+				.setPolicyNumber(policyNumber)
+				.setCustomerId(customerId)
+				.setEventData("{}")
+				.build();
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met within 5 seconds").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * 발송한 알림을 기록하는 테스트용 발송기입니다.
+	 */
+	private static class RecordingSender implements NotificationSender {
+		private final NotificationChannel channel;
+		final List<CustomerNotification> sent = new CopyOnWriteArrayList<>();
+		final AtomicInteger attempts = new AtomicInteger();
+
+		RecordingSender(NotificationChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public NotificationChannel channel() {
+			return channel;
+		}
+
+		@Override
+		public void send(CustomerNotification notification) throws Exception {
+			attempts.incrementAndGet();
+			sent.add(notification);
+		}
+
+		CustomerNotification sentTo(String customerId) {
+			return sent.stream()
+					.filter(notification -> notification.customerId().equals(customerId))
+					.findFirst()
+					.orElseThrow();
+		}
+	}
+}
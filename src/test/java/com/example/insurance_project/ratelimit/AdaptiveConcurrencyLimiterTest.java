@@ -0,0 +1,91 @@
+package com.example.insurance_project.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long TARGET_LATENCY_MS = 100;
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+	@Test
+	void rejectsRequestsAboveLimitWithoutCountingThem() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET_LATENCY_MS, 0.5);
+
+		assertThat(limiter.tryAcquire()).isTrue();
+		assertThat(limiter.tryAcquire()).isTrue();
+		assertThat(limiter.tryAcquire()).isFalse();
+		assertThat(limiter.getInFlight()).isEqualTo(2);
+
+		limiter.release(FAST);
+		assertThat(limiter.getInFlight()).isEqualTo(1);
+		assertThat(limiter.tryAcquire()).isTrue();
+	}
+
+	@Test
+	void increasesLimitAdditivelyWhenLatencyIsWithinTarget() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET_LATENCY_MS, 0.5);
+
+		// 2 -> 2.5 -> 2.9 -> 3.24 : 한도당 약 +1 / RTT
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.tryAcquire()).isTrue();
+			limiter.release(FAST);
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(3);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void decreasesLimitMultiplicativelyWhenLatencyExceedsTarget() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, TARGET_LATENCY_MS, 0.5);
+
+		assertThat(limiter.tryAcquire()).isTrue();
+		limiter.release(SLOW);
+
+		assertThat(limiter.getLimit()).isEqualTo(5);
+	}
+
+	@Test
+	void decreasesOnlyOncePerRoundTrip() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1, 20, TARGET_LATENCY_MS, 0.5);
+		long now = TimeUnit.SECONDS.toNanos(100);
+
+		// 같은 혼잡 구간에 받아들인 요청 8개가 모두 늦게 끝나도 한 번만 줄입니다.
+		for (int i = 0; i < 8; i++) {
+			assertThat(limiter.tryAcquire()).isTrue();
+		}
+		for (int i = 0; i < 8; i++) {
+			limiter.release(SLOW, now + i);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(8);
+
+		// 감소 이후에 시작한 요청이 늦게 끝나면 다시 줄입니다.
+		assertThat(limiter.tryAcquire()).isTrue();
+		limiter.release(SLOW, now + SLOW + 1);
+		assertThat(limiter.getLimit()).isEqualTo(4);
+	}
+
+	@Test
+	void keepsLimitWithinBounds() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 5, TARGET_LATENCY_MS, 0.5);
+
+		long now = 0;
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire();
+			now += 2 * SLOW;
+			limiter.release(SLOW, now);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(2);
+
+		for (int i = 0; i < 100; i++) {
+			limiter.tryAcquire();
+			limiter.release(FAST);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(5);
+	}
+}
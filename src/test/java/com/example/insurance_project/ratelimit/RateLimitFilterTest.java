@@ -0,0 +1,114 @@
+package com.example.insurance_project.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void rejectsIntakeWhileDrainingEvenWhenLimitsAreDisabled() throws Exception {
+		RateLimitFilter filter = filter(false);
+
+		filter.startDraining();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(post("/api/contracts/sign"), response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(503);
+		assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+		assertThat(response.getHeader("Connection")).isEqualTo("close");
+		assertThat(meterRegistry.get("insurance.ratelimit.rejected").tag("reason", "draining").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void passesUnmatchedRequestsWhileDraining() throws Exception {
+		RateLimitFilter filter = filter(true);
+
+		filter.startDraining();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/kafka/policies/POL-1/state"), response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void awaitInFlightWaitsForAdmittedRequests() throws Exception {
+		RateLimitFilter filter = filter(true);
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Thread request = new Thread(() -> {
+			try {
+				filter.doFilter(post("/kafka/key-1/insurance-event"), new MockHttpServletResponse(), (req, res) -> {
+					entered.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		request.start();
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		filter.startDraining();
+		assertThat(filter.awaitInFlight(50)).isFalse();
+
+		release.countDown();
+		assertThat(filter.awaitInFlight(5000)).isTrue();
+		request.join();
+	}
+
+	@Test
+	void rejectedClientDoesNotConsumeSharedEndpointTokens() throws Exception {
+		TokenBucket endpointBucket = new TokenBucket(0.001, 2);
+		RateLimitFilter filter = new RateLimitFilter(
+				Map.of("sign", endpointBucket),
+				() -> new TokenBucket(0.001, 1),
+				Map.of(),
+				true,
+				meterRegistry);
+
+		// 10.0.0.1 은 첫 요청 뒤 자기 버킷에서 거절되어야 하며, 엔드포인트 토큰을 더 쓰면 안 됩니다.
+		for (int i = 0; i < 5; i++) {
+			filter.doFilter(post("/api/contracts/sign"), new MockHttpServletResponse(), new MockFilterChain());
+		}
+		MockHttpServletRequest other = post("/api/contracts/sign");
+		other.setRemoteAddr("10.0.0.2");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(other, response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(meterRegistry.get("insurance.ratelimit.rejected").tag("reason", "client").counter().count()).isEqualTo(4);
+		assertThat(meterRegistry.get("insurance.ratelimit.rejected").tag("reason", "endpoint").counter().count()).isZero();
+	}
+
+	private RateLimitFilter filter(boolean limitsEnabled) {
+		return new RateLimitFilter(
+				Map.of("sign", new TokenBucket(100, 100), "insurance-event", new TokenBucket(100, 100)),
+				() -> new TokenBucket(100, 100),
+				Map.of("sign", new AdaptiveConcurrencyLimiter(10, 1, 10, 250, 0.9),
+						"insurance-event", new AdaptiveConcurrencyLimiter(10, 1, 10, 250, 0.9)),
+				limitsEnabled,
+				meterRegistry);
+	}
+
+	private static MockHttpServletRequest post(String uri) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+		request.setRemoteAddr("10.0.0.1");
+		return request;
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.insurance_project.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+	@Test
+	void allowsBurstThenReportsWaitUntilNextToken() {
+		TokenBucket bucket = new TokenBucket(1, 5);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(bucket.tryAcquire()).as("burst token %d", i + 1).isZero();
+		}
+
+		long waitNanos = bucket.tryAcquire();
+		// 초당 1개이므로 다음 토큰까지 1초 가까이 기다려야 합니다.
+		assertThat(waitNanos).isBetween(TimeUnit.MILLISECONDS.toNanos(500), TimeUnit.SECONDS.toNanos(1));
+	}
+
+	@Test
+	void rejectedAcquireDoesNotConsumeToken() {
+		TokenBucket bucket = new TokenBucket(1, 1);
+
+		assertThat(bucket.tryAcquire()).isZero();
+		long firstWait = bucket.tryAcquire();
+		long secondWait = bucket.tryAcquire();
+
+		// 거절된 요청이 TAT를 밀어내면 대기 시간이 계속 늘어납니다.
+		assertThat(secondWait).isPositive().isLessThanOrEqualTo(firstWait);
+	}
+
+	@Test
+	void refillsAtConfiguredRate() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(100, 1);
+
+		assertThat(bucket.tryAcquire()).isZero();
+		assertThat(bucket.tryAcquire()).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+
+		Thread.sleep(20);
+
+		assertThat(bucket.tryAcquire()).isZero();
+	}
+
+	@Test
+	void idleOnlyWhenFullyRefilled() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(100, 2);
+		assertThat(bucket.isIdle()).isTrue();
+
+		bucket.tryAcquire();
+		assertThat(bucket.isIdle()).isFalse();
+
+		Thread.sleep(20);
+		assertThat(bucket.isIdle()).isTrue();
+	}
+
+	@Test
+	void rejectsInvalidConfiguration() {
+		assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}